@@ -0,0 +1,592 @@
+package geometries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * The BVHBuilder class builds the bounding volume hierarchy of a {@link Geometries} collection.
+ * The quality of the tree is a trade-off between build time and render time, so it can be
+ * chosen per job:
+ * <ul>
+ * <li>{@link Quality#MEDIAN} - splits the geometries at the median of their centers along the
+ * longest axis. Very fast to build, good for fast iterations on a scene.</li>
+ * <li>{@link Quality#SAH} - chooses the split with the lowest cost according to the surface
+ * area heuristic, evaluated over a fixed amount of bins per axis. Slower to build, but the
+ * tree is usually much cheaper to traverse.</li>
+ * <li>{@link Quality#LBVH} - a linear hierarchy: the centers are sorted along a Morton
+ * (Z-order) curve by a parallel sort, and the tree is emitted from the sorted codes with
+ * fork/join. The fastest to build and it scales with the cores, meant for huge meshes.</li>
+ * </ul>
+ * After a build the builder holds the {@link Statistics} of the tree it built.
+ */
+public class BVHBuilder {
+    /**
+     * The quality levels of the builder
+     */
+    public enum Quality {
+        /**
+         * Median split along the longest axis of the centers
+         */
+        MEDIAN,
+        /**
+         * Binned surface area heuristic split
+         */
+        SAH,
+        /**
+         * Parallel linear hierarchy over Morton codes
+         */
+        LBVH
+    }
+
+    /**
+     * Statistics of a built hierarchy.
+     *
+     * @param depth              the depth of the tree (a single leaf has depth 1)
+     * @param nodeCount          the amount of nodes (inner nodes and leaves) in the tree
+     * @param leafSizeHistogram  the amount of leaves of each size - the i-th cell holds the
+     *                           amount of leaves with i geometries
+     * @param sahCost            the estimated cost of tracing a ray through the tree according
+     *                           to the surface area heuristic
+     */
+    public record Statistics(int depth, int nodeCount, int[] leafSizeHistogram, double sahCost) {
+        @Override
+        public String toString() {
+            return "BVH { depth: " + depth + ", nodes: " + nodeCount
+                    + ", leaf sizes: " + Arrays.toString(leafSizeHistogram)
+                    + ", SAH cost: " + String.format("%.2f", sahCost) + " }";
+        }
+    }
+
+    /**
+     * Estimated cost of testing a ray against a box of an inner node
+     */
+    private static final double TRAVERSAL_COST = 1;
+    /**
+     * Estimated cost of testing a ray against a geometry
+     */
+    private static final double INTERSECTION_COST = 1;
+
+    /**
+     * Amount of bits of a Morton code per axis (the centers are quantized into a 1024^3 grid)
+     */
+    private static final int MORTON_BITS = 10;
+    /**
+     * Ranges smaller than this are emitted by a single thread
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private Quality quality = Quality.SAH;
+    private int maxLeafSize = 4;
+    private int binCount = 16;
+
+    private Statistics statistics = null;
+
+    // working data of the current build
+    private Intersectable[] items;
+    private BoundingBox[] boxes;
+    private double[] centers;
+    private int[] mortonCodes;
+
+    //region Setters (Builder Pattern)
+    /**
+     * Sets the quality level of the builder.
+     *
+     * @param quality the new quality level
+     * @return this builder
+     */
+    public BVHBuilder setQuality(Quality quality) {
+        this.quality = quality;
+        return this;
+    }
+
+    /**
+     * Sets the maximal amount of geometries in a leaf.
+     *
+     * @param maxLeafSize the new maximal leaf size
+     * @return this builder
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public BVHBuilder setMaxLeafSize(int maxLeafSize) {
+        if (maxLeafSize < 1)
+            throw new IllegalArgumentException("Maximal leaf size must be positive");
+        this.maxLeafSize = maxLeafSize;
+        return this;
+    }
+
+    /**
+     * Sets the amount of bins per axis of the {@link Quality#SAH} quality level.
+     *
+     * @param binCount the new amount of bins
+     * @return this builder
+     * @throws IllegalArgumentException if there are less than 2 bins
+     */
+    public BVHBuilder setBinCount(int binCount) {
+        if (binCount < 2)
+            throw new IllegalArgumentException("There must be at least 2 bins");
+        this.binCount = binCount;
+        return this;
+    }
+    //endregion
+
+    /**
+     * Returns the statistics of the last built hierarchy.
+     *
+     * @return the statistics, or {@code null} if nothing was built yet
+     */
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Builds a hierarchy over the given geometries.
+     *
+     * @param bounded the geometries, all of them must have a bounding box
+     * @return the root of the hierarchy, or {@code null} if there are no geometries
+     */
+    Intersectable build(List<Intersectable> bounded) {
+        int size = bounded.size();
+        if (size == 0) {
+            statistics = new Statistics(0, 0, new int[maxLeafSize + 1], 0);
+            return null;
+        }
+
+        items = bounded.toArray(new Intersectable[0]);
+        boxes = new BoundingBox[size];
+        centers = new double[3 * size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            boxes[i] = items[i].getBoundingBox();
+            for (int axis = 0; axis < 3; axis++)
+                centers[3 * i + axis] = boxes[i].getCenter(axis);
+        });
+
+        Geometries root = quality == Quality.LBVH ? buildLinear() : buildNode(0, size);
+        statistics = collectStatistics(root);
+
+        items = null;
+        boxes = null;
+        centers = null;
+        mortonCodes = null;
+        return root;
+    }
+
+    /**
+     * Recursively builds the node of the geometries in the range [from, to) of the working arrays.
+     *
+     * @param from the first index of the range (included)
+     * @param to   the last index of the range (excluded)
+     * @return the node
+     */
+    private Geometries buildNode(int from, int to) {
+        BoundingBox nodeBox = boxes[from];
+        for (int i = from + 1; i < to; i++)
+            nodeBox = nodeBox.union(boxes[i]);
+
+        int size = to - from;
+        if (size <= maxLeafSize)
+            return new Geometries(new ArrayList<>(Arrays.asList(items).subList(from, to)), nodeBox);
+
+        int middle = quality == Quality.SAH ? sahSplit(from, to, nodeBox) : -1;
+        if (middle <= from || middle >= to)
+            middle = medianSplit(from, to);
+
+        List<Intersectable> children = new ArrayList<>(2);
+        children.add(buildNode(from, middle));
+        children.add(buildNode(middle, to));
+        return new Geometries(children, nodeBox);
+    }
+
+    /**
+     * Builds a linear hierarchy - the geometries are sorted by the Morton codes of their centers,
+     * so geometries which are close in space are close in the arrays, and then every node is
+     * split where the highest bit of the codes in its range changes.
+     *
+     * @return the root of the hierarchy
+     */
+    private Geometries buildLinear() {
+        int size = items.length;
+        BoundingBox bounds = centerBounds(0, size);
+        // a cubic grid, so a flat scene is not split along its thin axis first
+        double scale = scaleOf(Math.max(bounds.maxX - bounds.minX,
+                Math.max(bounds.maxY - bounds.minY, bounds.maxZ - bounds.minZ)));
+
+        // the code is in the high half of the key and the index in the low half,
+        // so a parallel sort of primitive longs sorts the geometries by their codes
+        long[] keys = new long[size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            long code = mortonCode(
+                    (int) ((centers[3 * i] - bounds.minX) * scale),
+                    (int) ((centers[3 * i + 1] - bounds.minY) * scale),
+                    (int) ((centers[3 * i + 2] - bounds.minZ) * scale));
+            keys[i] = code << 32 | i;
+        });
+        Arrays.parallelSort(keys);
+
+        Intersectable[] sortedItems = new Intersectable[size];
+        BoundingBox[] sortedBoxes = new BoundingBox[size];
+        mortonCodes = new int[size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            int index = (int) keys[i];
+            sortedItems[i] = items[index];
+            sortedBoxes[i] = boxes[index];
+            mortonCodes[i] = (int) (keys[i] >>> 32);
+        });
+        items = sortedItems;
+        boxes = sortedBoxes;
+
+        return ForkJoinPool.commonPool().invoke(new LinearNodeTask(0, size));
+    }
+
+    /**
+     * Task which emits the node of the range [from, to) of the sorted arrays of a linear hierarchy.
+     * Big ranges fork a task for each of their children.
+     */
+    private class LinearNodeTask extends RecursiveTask<Geometries> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+
+        /**
+         * Constructs the task of a range.
+         *
+         * @param from the first index of the range (included)
+         * @param to   the last index of the range (excluded)
+         */
+        LinearNodeTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Geometries compute() {
+            if (to - from <= maxLeafSize) {
+                BoundingBox nodeBox = boxes[from];
+                for (int i = from + 1; i < to; i++)
+                    nodeBox = nodeBox.union(boxes[i]);
+                return new Geometries(new ArrayList<>(Arrays.asList(items).subList(from, to)), nodeBox);
+            }
+
+            int middle = mortonSplit(from, to);
+            Geometries left, right;
+            if (to - from > PARALLEL_THRESHOLD) {
+                LinearNodeTask leftTask = new LinearNodeTask(from, middle);
+                leftTask.fork();
+                right = new LinearNodeTask(middle, to).compute();
+                left = leftTask.join();
+            } else {
+                left = new LinearNodeTask(from, middle).compute();
+                right = new LinearNodeTask(middle, to).compute();
+            }
+
+            List<Intersectable> children = new ArrayList<>(2);
+            children.add(left);
+            children.add(right);
+            return new Geometries(children, left.getBoundingBox().union(right.getBoundingBox()));
+        }
+    }
+
+    /**
+     * Finds the split of a range of sorted Morton codes - the first index where the highest bit
+     * which differs between the first and the last code of the range is set.
+     *
+     * @param from the first index of the range (included)
+     * @param to   the last index of the range (excluded)
+     * @return the index of the split
+     */
+    private int mortonSplit(int from, int to) {
+        int first = mortonCodes[from], last = mortonCodes[to - 1];
+        if (first == last)
+            return from + (to - from) / 2;
+
+        // binary search for the last code which shares more than the common prefix with the first one
+        int commonPrefix = Integer.numberOfLeadingZeros(first ^ last);
+        int split = from, step = to - 1 - from;
+        do {
+            step = (step + 1) >> 1;
+            int newSplit = split + step;
+            if (newSplit < to - 1 && Integer.numberOfLeadingZeros(first ^ mortonCodes[newSplit]) > commonPrefix)
+                split = newSplit;
+        } while (step > 1);
+        return split + 1;
+    }
+
+    /**
+     * Calculates the scale which quantizes a range of coordinates into the Morton grid.
+     *
+     * @param extent the extent of the coordinates
+     * @return the scale
+     */
+    private static double scaleOf(double extent) {
+        int cells = 1 << MORTON_BITS;
+        return extent <= 0 ? 0 : (cells - 1) / extent;
+    }
+
+    /**
+     * Interleaves the bits of three grid coordinates into a Morton code.
+     *
+     * @param x the x grid coordinate
+     * @param y the y grid coordinate
+     * @param z the z grid coordinate
+     * @return the Morton code
+     */
+    private static long mortonCode(int x, int y, int z) {
+        return expandBits(x) << 2 | expandBits(y) << 1 | expandBits(z);
+    }
+
+    /**
+     * Spreads the 10 low bits of a number so there are two zero bits between every two bits.
+     *
+     * @param v the number
+     * @return the spread bits
+     */
+    private static long expandBits(int v) {
+        long x = v & 0x3FF;
+        x = (x | x << 16) & 0x30000FFL;
+        x = (x | x << 8) & 0x300F00FL;
+        x = (x | x << 4) & 0x30C30C3L;
+        x = (x | x << 2) & 0x9249249L;
+        return x;
+    }
+
+    /**
+     * Sorts the range by the centers along the longest axis of the centers and splits it in the middle.
+     *
+     * @param from the first index of the range (included)
+     * @param to   the last index of the range (excluded)
+     * @return the index of the split
+     */
+    private int medianSplit(int from, int to) {
+        int axis = centerBounds(from, to).getLongestAxis();
+
+        Integer[] order = new Integer[to - from];
+        for (int i = 0; i < order.length; i++)
+            order[i] = from + i;
+        Arrays.sort(order, Comparator.comparingDouble(i -> centers[3 * i + axis]));
+        reorder(from, order);
+
+        return from + (to - from) / 2;
+    }
+
+    /**
+     * Finds the cheapest split of the range according to the surface area heuristic. The centers
+     * are distributed into bins along each axis and every border between bins is evaluated.
+     * The range is then partitioned according to the chosen border.
+     *
+     * @param from    the first index of the range (included)
+     * @param to      the last index of the range (excluded)
+     * @param nodeBox the box of the whole range
+     * @return the index of the split, or -1 if the centers can't be separated
+     */
+    private int sahSplit(int from, int to, BoundingBox nodeBox) {
+        BoundingBox bounds = centerBounds(from, to);
+        double[] min = { bounds.minX, bounds.minY, bounds.minZ };
+        double[] max = { bounds.maxX, bounds.maxY, bounds.maxZ };
+
+        double nodeArea = nodeBox.surfaceArea();
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestBin = -1;
+
+        int[] counts = new int[binCount];
+        BoundingBox[] binBoxes = new BoundingBox[binCount];
+        double[] rightAreas = new double[binCount];
+        int[] rightCounts = new int[binCount];
+
+        for (int axis = 0; axis < 3; axis++) {
+            double extent = max[axis] - min[axis];
+            if (extent <= 0)
+                continue;
+
+            Arrays.fill(counts, 0);
+            Arrays.fill(binBoxes, null);
+            for (int i = from; i < to; i++) {
+                int bin = binOf(centers[3 * i + axis], min[axis], extent);
+                counts[bin]++;
+                binBoxes[bin] = binBoxes[bin] == null ? boxes[i] : binBoxes[bin].union(boxes[i]);
+            }
+
+            // sweep from the right to get the area and count of every right side
+            BoundingBox right = null;
+            int rightCount = 0;
+            for (int bin = binCount - 1; bin > 0; bin--) {
+                if (binBoxes[bin] != null)
+                    right = right == null ? binBoxes[bin] : right.union(binBoxes[bin]);
+                rightCount += counts[bin];
+                rightAreas[bin] = right == null ? 0 : right.surfaceArea();
+                rightCounts[bin] = rightCount;
+            }
+
+            // sweep from the left and evaluate the border before each bin
+            BoundingBox left = null;
+            int leftCount = 0;
+            for (int bin = 1; bin < binCount; bin++) {
+                if (binBoxes[bin - 1] != null)
+                    left = left == null ? binBoxes[bin - 1] : left.union(binBoxes[bin - 1]);
+                leftCount += counts[bin - 1];
+                if (leftCount == 0 || rightCounts[bin] == 0)
+                    continue;
+
+                double cost = splitCost(left.surfaceArea(), leftCount, rightAreas[bin], rightCounts[bin], nodeArea);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = bin;
+                }
+            }
+        }
+
+        if (bestAxis < 0)
+            return -1;
+
+        // partition the range - every geometry before the chosen border goes to the left
+        int axis = bestAxis;
+        int i = from, j = to - 1;
+        while (i <= j) {
+            if (binOf(centers[3 * i + axis], min[axis], max[axis] - min[axis]) < bestBin)
+                i++;
+            else
+                swap(i, j--);
+        }
+        return i;
+    }
+
+    /**
+     * Calculates the estimated cost of a split according to the surface area heuristic.
+     *
+     * @param leftArea   the surface area of the left side
+     * @param leftCount  the amount of geometries in the left side
+     * @param rightArea  the surface area of the right side
+     * @param rightCount the amount of geometries in the right side
+     * @param nodeArea   the surface area of the whole node
+     * @return the estimated cost
+     */
+    private static double splitCost(double leftArea, int leftCount, double rightArea, int rightCount, double nodeArea) {
+        if (nodeArea <= 0)
+            return TRAVERSAL_COST + INTERSECTION_COST * (leftCount + rightCount);
+        return TRAVERSAL_COST + INTERSECTION_COST * (leftArea * leftCount + rightArea * rightCount) / nodeArea;
+    }
+
+    /**
+     * Finds the bin of a center coordinate.
+     *
+     * @param center the center coordinate
+     * @param min    the minimal center coordinate of the range
+     * @param extent the extent of the center coordinates of the range
+     * @return the index of the bin
+     */
+    private int binOf(double center, double min, double extent) {
+        int bin = (int) (binCount * (center - min) / extent);
+        return Math.min(bin, binCount - 1);
+    }
+
+    /**
+     * Calculates the box of the centers in the range.
+     *
+     * @param from the first index of the range (included)
+     * @param to   the last index of the range (excluded)
+     * @return the box of the centers
+     */
+    private BoundingBox centerBounds(int from, int to) {
+        double x1 = Double.POSITIVE_INFINITY, y1 = Double.POSITIVE_INFINITY, z1 = Double.POSITIVE_INFINITY;
+        double x2 = Double.NEGATIVE_INFINITY, y2 = Double.NEGATIVE_INFINITY, z2 = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            x1 = Math.min(x1, centers[3 * i]);
+            y1 = Math.min(y1, centers[3 * i + 1]);
+            z1 = Math.min(z1, centers[3 * i + 2]);
+            x2 = Math.max(x2, centers[3 * i]);
+            y2 = Math.max(y2, centers[3 * i + 1]);
+            z2 = Math.max(z2, centers[3 * i + 2]);
+        }
+        return new BoundingBox(x1, y1, z1, x2, y2, z2);
+    }
+
+    /**
+     * Swaps two geometries (with their boxes and centers) in the working arrays.
+     *
+     * @param i the index of the first geometry
+     * @param j the index of the second geometry
+     */
+    private void swap(int i, int j) {
+        Intersectable item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+
+        BoundingBox box = boxes[i];
+        boxes[i] = boxes[j];
+        boxes[j] = box;
+
+        for (int axis = 0; axis < 3; axis++) {
+            double center = centers[3 * i + axis];
+            centers[3 * i + axis] = centers[3 * j + axis];
+            centers[3 * j + axis] = center;
+        }
+    }
+
+    /**
+     * Reorders the range of the working arrays which starts at the given index.
+     *
+     * @param from  the first index of the range
+     * @param order the old indices in their new order
+     */
+    private void reorder(int from, Integer[] order) {
+        Intersectable[] newItems = new Intersectable[order.length];
+        BoundingBox[] newBoxes = new BoundingBox[order.length];
+        double[] newCenters = new double[3 * order.length];
+        for (int i = 0; i < order.length; i++) {
+            newItems[i] = items[order[i]];
+            newBoxes[i] = boxes[order[i]];
+            System.arraycopy(centers, 3 * order[i], newCenters, 3 * i, 3);
+        }
+        System.arraycopy(newItems, 0, items, from, order.length);
+        System.arraycopy(newBoxes, 0, boxes, from, order.length);
+        System.arraycopy(newCenters, 0, centers, 3 * from, newCenters.length);
+    }
+
+    /**
+     * Walks over a built tree and collects its statistics.
+     *
+     * @param root the root of the tree
+     * @return the statistics of the tree
+     */
+    Statistics collectStatistics(Geometries root) {
+        int[] histogram = new int[maxLeafSize + 1];
+        double rootArea = root.getBoundingBox().surfaceArea();
+        // [depth, node count] and the accumulated cost
+        int[] counters = new int[2];
+        double cost = collectStatistics(root, 1, rootArea, histogram, counters);
+        return new Statistics(counters[0], counters[1], histogram, cost);
+    }
+
+    /**
+     * Recursively collects the statistics of a node.
+     *
+     * @param node      the node
+     * @param depth     the depth of the node
+     * @param rootArea  the surface area of the root box
+     * @param histogram the histogram of leaf sizes
+     * @param counters  the maximal depth and the node count
+     * @return the estimated cost of the subtree, relative to the root area
+     */
+    private double collectStatistics(Geometries node, int depth, double rootArea, int[] histogram, int[] counters) {
+        counters[0] = Math.max(counters[0], depth);
+        counters[1]++;
+
+        double probability = rootArea <= 0 ? 1 : node.getBoundingBox().surfaceArea() / rootArea;
+        List<Intersectable> children = node.getIntersectables();
+        if (!(children.get(0) instanceof Geometries)) {
+            int size = children.size();
+            if (size >= histogram.length)
+                size = histogram.length - 1;
+            histogram[size]++;
+            return INTERSECTION_COST * children.size() * probability;
+        }
+
+        double cost = TRAVERSAL_COST * probability;
+        for (Intersectable child : children)
+            cost += collectStatistics((Geometries) child, depth + 1, rootArea, histogram, counters);
+        return cost;
+    }
+}
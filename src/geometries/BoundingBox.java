@@ -0,0 +1,297 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * The BoundingBox class represents an axis-aligned box which bounds an {@link Intersectable}.
+ * It is used by the bounding volume hierarchy of {@link Geometries} to skip whole groups
+ * of geometries which a ray can't intersect.
+ */
+public class BoundingBox {
+    /**
+     * The entry distance of a ray which misses the box
+     */
+    private static final double MISS = Double.POSITIVE_INFINITY;
+
+    final double minX, minY, minZ;
+    final double maxX, maxY, maxZ;
+
+    /**
+     * Constructs a new bounding box from its minimal and maximal coordinates.
+     *
+     * @param minX the minimal x coordinate
+     * @param minY the minimal y coordinate
+     * @param minZ the minimal z coordinate
+     * @param maxX the maximal x coordinate
+     * @param maxY the maximal y coordinate
+     * @param maxZ the maximal z coordinate
+     * @throws IllegalArgumentException if a minimal coordinate is bigger than the maximal one
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        if (minX > maxX || minY > maxY || minZ > maxZ)
+            throw new IllegalArgumentException("Minimal coordinates must not be bigger than the maximal ones");
+
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Constructs the smallest bounding box which contains all the given points.
+     *
+     * @param points the points to bound
+     * @throws IllegalArgumentException if no points were given
+     */
+    public BoundingBox(Point... points) {
+        if (points.length == 0)
+            throw new IllegalArgumentException("A bounding box needs at least one point");
+
+        double x1 = Double.POSITIVE_INFINITY, y1 = Double.POSITIVE_INFINITY, z1 = Double.POSITIVE_INFINITY;
+        double x2 = Double.NEGATIVE_INFINITY, y2 = Double.NEGATIVE_INFINITY, z2 = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            x1 = Math.min(x1, p.getX());
+            y1 = Math.min(y1, p.getY());
+            z1 = Math.min(z1, p.getZ());
+            x2 = Math.max(x2, p.getX());
+            y2 = Math.max(y2, p.getY());
+            z2 = Math.max(z2, p.getZ());
+        }
+        minX = x1;
+        minY = y1;
+        minZ = z1;
+        maxX = x2;
+        maxY = y2;
+        maxZ = z2;
+    }
+
+    /**
+     * Returns the point with the minimal coordinates of the box.
+     *
+     * @return the minimal corner of the box
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * Returns the point with the maximal coordinates of the box.
+     *
+     * @return the maximal corner of the box
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Returns the center of the box.
+     *
+     * @return the center point of the box
+     */
+    public Point getCenter() {
+        return new Point((minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2);
+    }
+
+    /**
+     * Returns the coordinate of the box center along the given axis.
+     *
+     * @param axis 0 for x, 1 for y and 2 for z
+     * @return the center coordinate along the axis
+     */
+    public double getCenter(int axis) {
+        return switch (axis) {
+            case 0 -> (minX + maxX) / 2;
+            case 1 -> (minY + maxY) / 2;
+            default -> (minZ + maxZ) / 2;
+        };
+    }
+
+    /**
+     * Returns the axis along which the box is the longest.
+     *
+     * @return 0 for x, 1 for y and 2 for z
+     */
+    public int getLongestAxis() {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        if (dx >= dy && dx >= dz)
+            return 0;
+        return dy >= dz ? 1 : 2;
+    }
+
+    /**
+     * Returns the surface area of the box.
+     *
+     * @return the surface area of the box
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Returns the smallest box which contains both this box and the given box.
+     *
+     * @param other the other box
+     * @return the union of the two boxes
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(
+                Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Checks if a ray intersects the box.
+     *
+     * @param ray the ray to check
+     * @return {@code true} if the ray intersects the box, {@code false} otherwise
+     */
+    public boolean intersects(Ray ray) {
+        return intersects(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Checks if a ray intersects the box closer than a given distance from the ray's head.
+     *
+     * @param ray         the ray to check
+     * @param maxDistance the maximal distance along the ray
+     * @return {@code true} if the ray intersects the box, {@code false} otherwise
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        return entryDistance(ray, maxDistance) != MISS;
+    }
+
+    /**
+     * Calculates the distance from the ray's head to the point where the ray enters the box.
+     * The check uses the slab method - the ray is clipped against the pair of planes of each axis.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance along the ray
+     * @return the entry distance (0 if the ray starts inside the box), or
+     * {@link Double#POSITIVE_INFINITY} if the ray doesn't intersect the box closer than the maximal distance
+     */
+    public double entryDistance(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return entryDistance(p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(), maxDistance);
+    }
+
+    /**
+     * Calculates the distance from the head of a ray of a packet to the point where the ray enters
+     * the box, up to the closest intersection of the ray found so far.
+     *
+     * @param packet the packet of rays
+     * @param k      the index of the ray
+     * @return the entry distance, or {@link Double#POSITIVE_INFINITY} if the ray misses the box
+     */
+    double entryDistance(RayPacket packet, int k) {
+        return entryDistance(packet.oX[k], packet.oY[k], packet.oZ[k], packet.dX[k], packet.dY[k], packet.dZ[k],
+                packet.t[k]);
+    }
+
+    /**
+     * Finds the active rays of a packet which enter the box closer than their closest intersections
+     * found so far.
+     *
+     * @param packet the packet of rays
+     * @return the mask of the active rays which enter the box
+     */
+    int entryMask(RayPacket packet) {
+        int result = 0;
+        for (int mask = packet.active; mask != 0; mask &= mask - 1) {
+            int k = Integer.numberOfTrailingZeros(mask);
+            if (entryDistance(packet, k) != MISS)
+                result |= 1 << k;
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the distance from the ray's head to the point where the ray enters the box, for a
+     * ray given by its coordinates (e.g. a ray of a {@link RayPacket}).
+     *
+     * @param oX          the x coordinate of the ray's head
+     * @param oY          the y coordinate of the ray's head
+     * @param oZ          the z coordinate of the ray's head
+     * @param dX          the x coordinate of the ray's direction
+     * @param dY          the y coordinate of the ray's direction
+     * @param dZ          the z coordinate of the ray's direction
+     * @param maxDistance the maximal distance along the ray
+     * @return the entry distance, or {@link Double#POSITIVE_INFINITY} if the ray misses the box
+     * @see #entryDistance(Ray, double)
+     */
+    double entryDistance(double oX, double oY, double oZ, double dX, double dY, double dZ, double maxDistance) {
+        return entryDistance(minX, minY, minZ, maxX, maxY, maxZ, oX, oY, oZ, dX, dY, dZ, maxDistance);
+    }
+
+    /**
+     * Calculates the distance from the ray's head to the point where the ray enters a box given by
+     * its coordinates (e.g. a node of the hierarchy of a {@link TriangleMesh}).
+     *
+     * @param minX        the minimal x coordinate of the box
+     * @param minY        the minimal y coordinate of the box
+     * @param minZ        the minimal z coordinate of the box
+     * @param maxX        the maximal x coordinate of the box
+     * @param maxY        the maximal y coordinate of the box
+     * @param maxZ        the maximal z coordinate of the box
+     * @param oX          the x coordinate of the ray's head
+     * @param oY          the y coordinate of the ray's head
+     * @param oZ          the z coordinate of the ray's head
+     * @param dX          the x coordinate of the ray's direction
+     * @param dY          the y coordinate of the ray's direction
+     * @param dZ          the z coordinate of the ray's direction
+     * @param maxDistance the maximal distance along the ray
+     * @return the entry distance, or {@link Double#POSITIVE_INFINITY} if the ray misses the box
+     */
+    static double entryDistance(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                                double oX, double oY, double oZ, double dX, double dY, double dZ,
+                                double maxDistance) {
+        double tNear = 0, tFar = maxDistance;
+
+        // x slab
+        double o = oX, d = dX;
+        if (d == 0) {
+            if (o < minX || o > maxX) return MISS;
+        } else {
+            double t1 = (minX - o) / d, t2 = (maxX - o) / d;
+            if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+            if (t1 > tNear) tNear = t1;
+            if (t2 < tFar) tFar = t2;
+            if (tNear > tFar) return MISS;
+        }
+
+        // y slab
+        o = oY;
+        d = dY;
+        if (d == 0) {
+            if (o < minY || o > maxY) return MISS;
+        } else {
+            double t1 = (minY - o) / d, t2 = (maxY - o) / d;
+            if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+            if (t1 > tNear) tNear = t1;
+            if (t2 < tFar) tFar = t2;
+            if (tNear > tFar) return MISS;
+        }
+
+        // z slab
+        o = oZ;
+        d = dZ;
+        if (d == 0) {
+            return o >= minZ && o <= maxZ ? tNear : MISS;
+        }
+        double t1 = (minZ - o) / d, t2 = (maxZ - o) / d;
+        if (t1 > t2) { double t = t1; t1 = t2; t2 = t; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+        return tNear <= tFar ? tNear : MISS;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + getMin() + ", " + getMax() + "]";
+    }
+}
@@ -5,6 +5,7 @@ import primitives.*;
 import java.util.LinkedList;
 import java.util.List;
 
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 /**
@@ -14,6 +15,10 @@ import static primitives.Util.isZero;
  */
 public class Cylinder extends Tube {
     private final double height;
+    /**
+     * The head and the direction of the axis and the square of the radius - precalculated for the intersections
+     */
+    private final double aX, aY, aZ, vX, vY, vZ, radiusSquared;
 
     /**
      * Constructs a new cylinder with the given radius,
@@ -26,6 +31,27 @@ public class Cylinder extends Tube {
     public Cylinder(double radius, Ray axisRay, double height) {
         super(radius, axisRay);
         this.height = height;
+
+        Point p0 = axisRay.getP0();
+        Vector dir = axisRay.getDir();
+        aX = p0.getX();
+        aY = p0.getY();
+        aZ = p0.getZ();
+        vX = dir.getX();
+        vY = dir.getY();
+        vZ = dir.getZ();
+        radiusSquared = radius * radius;
+
+        // the cap discs stick out of the axis segment by radius * sin(angle between axis and coordinate axis)
+        Point p1 = isZero(height) ? p0 : axisRay.getPoint(height);
+        double eX = radius * Math.sqrt(Math.max(0, 1 - dir.getX() * dir.getX()));
+        double eY = radius * Math.sqrt(Math.max(0, 1 - dir.getY() * dir.getY()));
+        double eZ = radius * Math.sqrt(Math.max(0, 1 - dir.getZ() * dir.getZ()));
+        box = new BoundingBox(
+                Math.min(p0.getX(), p1.getX()) - eX, Math.min(p0.getY(), p1.getY()) - eY,
+                Math.min(p0.getZ(), p1.getZ()) - eZ,
+                Math.max(p0.getX(), p1.getX()) + eX, Math.max(p0.getY(), p1.getY()) + eY,
+                Math.max(p0.getZ(), p1.getZ()) + eZ);
     }
 
     /**
@@ -64,63 +90,87 @@ public class Cylinder extends Tube {
     }
 
     @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        List<GeoPoint> intersections = super.findGeoIntersectionsHelper(ray);
-
-        Point p0 = axisRay.getP0();
-        Vector dir = axisRay.getDir();
+    protected int intersections(Ray ray, double maxDistance, HitRecord hit) {
+        return intersections(ray, maxDistance, hit, null);
+    }
 
-        if (intersections != null) {
-            List<GeoPoint> temp = new LinkedList<>();
-
-            for (GeoPoint g : intersections) {
-                double pointHeight = Util.alignZero(g.point.subtract(p0).dotProduct(dir));
-                if (pointHeight > 0 && pointHeight < height) {
-                    temp.add(g);
-                }
-            }
-
-            if (temp.isEmpty()) {
-                intersections = null;
-            } else {
-                intersections = temp;
-            }
+    /**
+     * Finds the intersections of a ray which are closer than a given distance. The ray is clipped by
+     * the slab between the caps (by the axis coordinate of its points) and by the infinite tube, like a
+     * ray is clipped by the slabs of a box - the ray is inside the cylinder in the common range, so
+     * there are at most two intersections, at the ends of the range. Nothing is allocated unless the
+     * intersection points are asked for.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance from the ray's head
+     * @param hit         the record to update with the closest intersection, {@code null} to only count them
+     * @param points      the list to add the intersection points to, {@code null} if they aren't needed
+     * @return the amount of intersections closer than the distance
+     */
+    private int intersections(Ray ray, double maxDistance, HitRecord hit, List<GeoPoint> points) {
+        Point rayP0 = ray.getP0();
+        Vector d = ray.getDir();
+        double dX = d.getX(), dY = d.getY(), dZ = d.getZ();
+        double xX = rayP0.getX() - aX, xY = rayP0.getY() - aY, xZ = rayP0.getZ() - aZ;
+        double dv = dX * vX + dY * vY + dZ * vZ;
+        double xv = xX * vX + xY * vY + xZ * vZ;
+
+        // the slab between the caps - the axis coordinate of the ray's points is xv + t * dv
+        double near = Double.NEGATIVE_INFINITY, far = Double.POSITIVE_INFINITY;
+        if (isZero(dv)) {
+            if (alignZero(xv) <= 0 || alignZero(xv - height) >= 0)
+                return 0; // the ray is parallel to the caps, outside the slab
+        } else {
+            double t1 = -xv / dv, t2 = (height - xv) / dv;
+            near = Math.min(t1, t2);
+            far = Math.max(t1, t2);
         }
 
-        List<GeoPoint> planeIntersection = new Plane(p0, dir).findGeoIntersections(ray);
-        if (planeIntersection != null) {
-            GeoPoint point = planeIntersection.get(0);
-            if (point.point.equals(p0)
-                    || Util.alignZero(point.point.subtract(p0).lengthSquared() - radius * radius) < 0) {
-                if (intersections == null) {
-                    intersections = new LinkedList<>();
-                }
-                point.geometry = this;
-                intersections.add(point);
-            }
+        // the tube - the quadratic at^2 + 2bt + c = 0 of the distance from the axis
+        double a = alignZero(1 - dv * dv);
+        double c = xX * xX + xY * xY + xZ * xZ - xv * xv - radiusSquared;
+        if (a == 0) {
+            if (alignZero(c) >= 0)
+                return 0; // the ray is parallel to the axis, outside the tube
+        } else {
+            double b = dX * xX + dY * xY + dZ * xZ - dv * xv;
+            double discriminant = alignZero(b * b - a * c);
+            if (discriminant <= 0)
+                return 0;
+            double root = Math.sqrt(discriminant);
+            near = Math.max(near, (-b - root) / a);
+            far = Math.min(far, (-b + root) / a);
         }
 
-        Point p1 = p0.add(dir.scale(height));
-
-        planeIntersection = new Plane(p1, dir).findGeoIntersections(ray);
-        if(planeIntersection != null) {
-            GeoPoint point = planeIntersection.get(0);
-            if (point.point.equals(p1)
-                    || Util.alignZero(point.point.subtract(p1).lengthSquared() - radius * radius) < 0) {
-                if (intersections == null) {
-                    intersections = new LinkedList<>();
-                }
-                point.geometry = this;
-                intersections.add(point);
-            }
+        // an empty range - the ray misses the cylinder or only touches its rim
+        if (alignZero(far - near) <= 0)
+            return 0;
+
+        near = alignZero(near);
+        far = alignZero(far);
+        int count = 0;
+        double closest = maxDistance;
+        if (near > 0 && near < maxDistance) {
+            count++;
+            closest = near;
+            if (points != null)
+                points.add(new GeoPoint(this, ray.getPoint(near)));
         }
-
-        if (intersections != null) {
-            for (GeoPoint g : intersections) {
-                g.geometry = this;
-            }
+        if (far > 0 && far < maxDistance) {
+            count++;
+            closest = Math.min(closest, far);
+            if (points != null)
+                points.add(new GeoPoint(this, ray.getPoint(far)));
         }
 
-        return intersections;
+        if (hit != null && count > 0)
+            hit.update(closest, this, null, null);
+        return count;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        List<GeoPoint> points = new LinkedList<>();
+        return intersections(ray, Double.POSITIVE_INFINITY, null, points) == 0 ? null : points;
     }
 }
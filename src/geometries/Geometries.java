@@ -1,8 +1,9 @@
 package geometries;
 
-import primitives.Point;
+import primitives.Double3;
 import primitives.Ray;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -28,14 +29,177 @@ public class Geometries extends Intersectable {
         this.intersectables = new LinkedList<Intersectable>();
     }
 
+    /**
+     * Constructs a node of the bounding volume hierarchy.
+     *
+     * @param intersectables the children of the node
+     * @param box            the box which bounds all the children
+     */
+    Geometries(List<Intersectable> intersectables, BoundingBox box) {
+        this.intersectables = intersectables;
+        this.box = box;
+    }
+
     public void add(Intersectable... intersectables) {
         this.intersectables.addAll(Arrays.stream(intersectables).toList());
     }
 
+    /**
+     * Builds a bounding volume hierarchy over the geometries of the collection with the default
+     * {@link BVHBuilder} settings.
+     *
+     * @return this Geometries object
+     */
+    public Geometries buildAcceleration() {
+        return buildAcceleration(new BVHBuilder());
+    }
+
+    /**
+     * Builds a bounding volume hierarchy over the geometries of the collection.
+     * Every bounded geometry is placed in a tree of boxes, so a ray is tested only against the
+     * geometries whose boxes it crosses. Unbounded geometries (planes, tubes) are kept aside and
+     * are tested against every ray. Nested collections are flattened into the hierarchy.
+     * The intersections found after the build are exactly the same as before it.
+     *
+     * @param builder the builder of the hierarchy, holds the statistics of the tree after the build
+     * @return this Geometries object
+     */
+    public Geometries buildAcceleration(BVHBuilder builder) {
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> unbounded = new LinkedList<>();
+        flatten(bounded, unbounded);
+
+        intersectables = unbounded;
+        Intersectable root = builder.build(bounded);
+        if (root != null)
+            intersectables.add(root);
+        return this;
+    }
+
+    /**
+     * Collects all the geometries of this collection (and of the nested ones) into two lists.
+     *
+     * @param bounded   the list of geometries which have a bounding box
+     * @param unbounded the list of geometries which don't have a bounding box
+     */
+    private void flatten(List<Intersectable> bounded, List<Intersectable> unbounded) {
+        for (Intersectable intersectable : intersectables) {
+            if (intersectable instanceof Geometries geometries)
+                geometries.flatten(bounded, unbounded);
+            else if (intersectable.getBoundingBox() == null)
+                unbounded.add(intersectable);
+            else
+                bounded.add(intersectable);
+        }
+    }
+
+    /**
+     * Returns the intersectables of the collection.
+     *
+     * @return the list of the intersectables
+     */
+    List<Intersectable> getIntersectables() {
+        return intersectables;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        if (box != null && !box.intersects(ray, hit.t))
+            return false;
+
+        // two bounded children (e.g. a node of the hierarchy) - visit the closer one first,
+        // so the farther one is probably rejected by the distance found in the closer one
+        if (intersectables.size() == 2) {
+            Intersectable first = intersectables.get(0), second = intersectables.get(1);
+            BoundingBox firstBox = first.getBoundingBox(), secondBox = second.getBoundingBox();
+            if (firstBox != null && secondBox != null) {
+                double firstDistance = firstBox.entryDistance(ray, hit.t);
+                double secondDistance = secondBox.entryDistance(ray, hit.t);
+                if (secondDistance < firstDistance) {
+                    Intersectable temp = first;
+                    first = second;
+                    second = temp;
+                }
+                boolean found = first.findClosestHitHelper(ray, hit);
+                return second.findClosestHitHelper(ray, hit) || found;
+            }
+        }
+
+        boolean found = false;
+        for (Intersectable geometry : intersectables)
+            if (geometry.findClosestHitHelper(ray, hit))
+                found = true;
+        return found;
+    }
+
+    @Override
+    protected void findClosestHitsHelper(RayPacket packet) {
+        int active = packet.active;
+        if (box != null) {
+            // only the rays which enter the box are tested in the subtree
+            packet.active = box.entryMask(packet);
+            if (packet.active == 0) {
+                packet.active = active;
+                return;
+            }
+        }
+
+        // two bounded children - visit first the one which the first active ray enters closer
+        if (intersectables.size() == 2) {
+            Intersectable first = intersectables.get(0), second = intersectables.get(1);
+            BoundingBox firstBox = first.getBoundingBox(), secondBox = second.getBoundingBox();
+            if (firstBox != null && secondBox != null) {
+                int k = Integer.numberOfTrailingZeros(packet.active);
+                if (secondBox.entryDistance(packet, k) < firstBox.entryDistance(packet, k)) {
+                    Intersectable temp = first;
+                    first = second;
+                    second = temp;
+                }
+                first.findClosestHitsHelper(packet);
+                second.findClosestHitsHelper(packet);
+                packet.active = active;
+                return;
+            }
+        }
+
+        for (Intersectable geometry : intersectables)
+            geometry.findClosestHitsHelper(packet);
+        packet.active = active;
+    }
+
+    @Override
+    public boolean isOccluded(Ray ray, double maxDistance) {
+        if (box != null && !box.intersects(ray, maxDistance))
+            return false;
+
+        for (Intersectable geometry : intersectables)
+            if (geometry.isOccluded(ray, maxDistance))
+                return true;
+        return false;
+    }
+
+    @Override
+    public Double3 transmittance(Ray ray, double maxDistance, double minK, HitRecord blocker) {
+        if (box != null && !box.intersects(ray, maxDistance))
+            return Double3.ONE;
 
+        Double3 ktr = Double3.ONE;
+        for (Intersectable geometry : intersectables) {
+            Double3 k = geometry.transmittance(ray, maxDistance, minK, blocker);
+            if (k == Double3.ONE)
+                continue;
+            ktr = ktr.product(k);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        if (box != null && !box.intersects(ray))
+            return null;
+
         List<GeoPoint> result = null; // starts at null - if no intersection points .
         for (Intersectable geometry : intersectables) {
             List<GeoPoint> intersections = geometry.findGeoIntersectionsHelper(ray);
@@ -48,4 +212,3 @@ public class Geometries extends Intersectable {
         return result;
     }
 }
-
@@ -2,6 +2,8 @@ package geometries;
 
 import primitives.*;
 
+import java.util.List;
+
 /**
  * The Geometry interface represents a geometric object in three-dimensional space.
  */
@@ -58,4 +60,73 @@ public abstract class Geometry extends Intersectable {
      * @return a normal vector to the geometry at the specified point
      */
     public abstract Vector getNormal(Point point);
+
+    @Override
+    public boolean isOccluded(Ray ray, double maxDistance) {
+        return material.kT.equals(Double3.ZERO) && countIntersections(ray, maxDistance) > 0;
+    }
+
+    @Override
+    public Double3 transmittance(Ray ray, double maxDistance, double minK, HitRecord blocker) {
+        int count = countIntersections(ray, maxDistance);
+        if (count == 0)
+            return Double3.ONE;
+        if (material.kT.equals(Double3.ZERO)) {
+            if (blocker != null)
+                blocker.geometry = this;
+            return Double3.ZERO;
+        }
+
+        Double3 ktr = Double3.ONE;
+        for (int i = 0; i < count; i++) {
+            ktr = ktr.product(material.kT);
+            if (ktr.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray);
+        if (intersections == null)
+            return false;
+
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        boolean found = false;
+        for (GeoPoint intersection : intersections) {
+            // the direction is normalized, so the projection on it is the distance along the ray
+            Point p = intersection.point;
+            double t = (p.getX() - p0.getX()) * dir.getX()
+                    + (p.getY() - p0.getY()) * dir.getY()
+                    + (p.getZ() - p0.getZ()) * dir.getZ();
+            if (t > 0 && t < hit.t) {
+                hit.update(t, intersection.geometry, p, null);
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Counts the intersections of a ray with the geometry which are closer than a given distance
+     * from the ray's head. Geometries should override it with a calculation which doesn't allocate.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance from the ray's head
+     * @return the amount of intersections closer than the distance
+     */
+    protected int countIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray);
+        if (intersections == null)
+            return 0;
+
+        double maxDistanceSquared = maxDistance * maxDistance;
+        int count = 0;
+        for (GeoPoint intersection : intersections)
+            if (intersection.point.distanceSquared(ray.getP0()) < maxDistanceSquared)
+                count++;
+        return count;
+    }
 }
@@ -1,11 +1,18 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
+import primitives.Vector;
 
 import java.util.List;
 
 public abstract class Intersectable {
+    /**
+     * The axis-aligned box which bounds the intersectable, {@code null} if it is unbounded.
+     */
+    protected BoundingBox box = null;
+
     /**
      * This class is a PDS class that holds Geometry and point.
      */
@@ -50,6 +57,130 @@ public abstract class Intersectable {
         }
     }
 
+    /**
+     * This class is a record of the closest intersection of a ray found so far. It holds the distance
+     * along the ray (the parameter t of the ray), so a search can reject every candidate farther than it.
+     * The geometries fill the record in place, so a single record can be reused (e.g. one per render
+     * thread) and a search doesn't allocate anything. The point and the normal are calculated only when asked.
+     */
+    public static class HitRecord {
+        /**
+         * The distance of the intersection from the ray's head (infinity while nothing was found)
+         */
+        public double t = Double.POSITIVE_INFINITY;
+        /**
+         * The intersected geometry ({@code null} while nothing was found)
+         */
+        public Geometry geometry = null;
+        /**
+         * The intersection point, {@code null} if it wasn't calculated yet
+         */
+        public Point point = null;
+        /**
+         * The normal of the geometry at the intersection point, {@code null} if it wasn't calculated yet
+         */
+        public Vector normal = null;
+        /**
+         * The barycentric coordinates of the intersection in a triangle - the weights of its second and
+         * third vertices (the weight of the first one is 1 - u - v), 0 for the other geometries
+         */
+        public double u = 0, v = 0;
+
+        /**
+         * Clears the record, so it can be reused for a new search.
+         *
+         * @return this record
+         */
+        public HitRecord reset() {
+            t = Double.POSITIVE_INFINITY;
+            geometry = null;
+            point = null;
+            normal = null;
+            u = 0;
+            v = 0;
+            return this;
+        }
+
+        /**
+         * Returns the intersection point, it is calculated from the ray if needed.
+         *
+         * @param ray the ray of the intersection
+         * @return the intersection point
+         */
+        public Point getPoint(Ray ray) {
+            if (point == null)
+                point = ray.getPoint(t);
+            return point;
+        }
+
+        /**
+         * Returns the normal of the geometry at the intersection point, it is calculated if needed.
+         *
+         * @param ray the ray of the intersection
+         * @return the normal at the intersection point
+         */
+        public Vector getNormal(Ray ray) {
+            if (normal == null)
+                normal = geometry.getNormal(getPoint(ray));
+            return normal;
+        }
+
+        /**
+         * Converts the record into a GeoPoint.
+         *
+         * @param ray the ray of the intersection
+         * @return a GeoPoint with the geometry and the point of the intersection
+         */
+        public GeoPoint toGeoPoint(Ray ray) {
+            return new GeoPoint(geometry, getPoint(ray));
+        }
+
+        /**
+         * Updates the record with a closer intersection.
+         *
+         * @param t        the distance of the intersection from the ray's head
+         * @param geometry the intersected geometry
+         * @param point    the intersection point, {@code null} to calculate it when needed
+         * @param normal   the normal at the intersection point, {@code null} to calculate it when needed
+         */
+        void update(double t, Geometry geometry, Point point, Vector normal) {
+            update(t, geometry, point, normal, 0, 0);
+        }
+
+        /**
+         * Updates the record with a closer intersection in a triangle.
+         *
+         * @param t        the distance of the intersection from the ray's head
+         * @param geometry the intersected geometry
+         * @param point    the intersection point, {@code null} to calculate it when needed
+         * @param normal   the normal at the intersection point, {@code null} to calculate it when needed
+         * @param u        the barycentric weight of the second vertex of the triangle
+         * @param v        the barycentric weight of the third vertex of the triangle
+         */
+        void update(double t, Geometry geometry, Point point, Vector normal, double u, double v) {
+            this.t = t;
+            this.geometry = geometry;
+            this.point = point;
+            this.normal = normal;
+            this.u = u;
+            this.v = v;
+        }
+
+        @Override
+        public String toString() {
+            return "{ t: " + t + ", " + geometry + " }";
+        }
+    }
+
+    /**
+     * Returns the axis-aligned box which bounds the intersectable.
+     *
+     * @return the bounding box, or {@code null} if the intersectable is unbounded (e.g. a plane)
+     */
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
 /**
 
  Finds the geometric intersection points between the intersectable object and a given ray.
@@ -83,4 +214,105 @@ public abstract class Intersectable {
         return geoList == null ? null : geoList.stream().map(gp -> gp.point).toList();
     }
 
+    /**
+     * Finds the closest intersection of the intersectable object with a given ray.
+     * Unlike {@link #findGeoIntersections(Ray)} no list of all the intersections is built -
+     * the search keeps the closest distance found so far and rejects every farther candidate.
+     *
+     * @param ray the ray to intersect with the object
+     * @return the record of the closest intersection, or {@code null} if no intersection occurs
+     */
+    public HitRecord findClosestHit(Ray ray) {
+        HitRecord hit = new HitRecord();
+        return findClosestHitHelper(ray, hit) ? hit : null;
+    }
+
+    /**
+     * Finds the closest intersection of the intersectable object with a given ray into a given record.
+     * The record is cleared before the search, so it may be reused between searches.
+     *
+     * @param ray the ray to intersect with the object
+     * @param hit the record to fill with the closest intersection
+     * @return {@code true} if an intersection was found, {@code false} otherwise
+     */
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        return findClosestHitHelper(ray, hit.reset());
+    }
+
+    /**
+     * Searches for an intersection with a given ray which is closer than the one in the record.
+     * This method should be implemented in subclasses.
+     *
+     * @param ray the ray to intersect with the object
+     * @param hit the closest intersection found so far, it is updated if a closer one is found
+     * @return {@code true} if a closer intersection was found, {@code false} otherwise
+     */
+    protected abstract boolean findClosestHitHelper(Ray ray, HitRecord hit);
+
+    /**
+     * Finds the closest intersections of the intersectable object with all the rays of a packet.
+     * The intersections of the packet are cleared before the search.
+     *
+     * @param packet the packet of rays, it is filled with the closest intersection of each ray
+     */
+    public void findClosestHits(RayPacket packet) {
+        findClosestHitsHelper(packet.clear());
+    }
+
+    /**
+     * Searches for intersections with the active rays of a packet which are closer than the ones in
+     * the packet. The default implementation tests the rays one by one - geometries with a packet
+     * intersection override it.
+     *
+     * @param packet the packet of rays, the closest intersection of each active ray is updated
+     */
+    protected void findClosestHitsHelper(RayPacket packet) {
+        HitRecord hit = packet.scalarHit;
+        for (int mask = packet.active; mask != 0; mask &= mask - 1) {
+            int k = Integer.numberOfTrailingZeros(mask);
+            hit.reset().t = packet.t[k];
+            if (findClosestHitHelper(packet.rays[k], hit))
+                packet.update(k, hit.t, hit.geometry, hit.point, hit.normal, hit.u, hit.v);
+        }
+    }
+
+    /**
+     * Checks if a ray is blocked by an opaque geometry closer than a given distance from the ray's head.
+     * The search stops at the first opaque intersection, no intersections list is built.
+     *
+     * @param ray         the ray to check (e.g. a shadow ray towards a light source)
+     * @param maxDistance the distance to check up to (e.g. the distance to the light source)
+     * @return {@code true} if an opaque geometry blocks the ray, {@code false} otherwise
+     */
+    public abstract boolean isOccluded(Ray ray, double maxDistance);
+
+    /**
+     * Calculates the transmittance along a ray up to a given distance from the ray's head - the product
+     * of the transparency coefficients (kT) of all the intersections closer than the distance.
+     * The search stops as soon as the transmittance drops below the given threshold,
+     * no intersections list is built.
+     *
+     * @param ray         the ray to check (e.g. a shadow ray towards a light source)
+     * @param maxDistance the distance to check up to (e.g. the distance to the light source)
+     * @param minK        the threshold under which the ray is considered fully blocked
+     * @return the transmittance along the ray, {@link Double3#ZERO} if it is fully blocked
+     */
+    public Double3 transmittance(Ray ray, double maxDistance, double minK) {
+        return transmittance(ray, maxDistance, minK, null);
+    }
+
+    /**
+     * Calculates the transmittance along a ray like {@link #transmittance(Ray, double, double)}, and
+     * records the opaque geometry which blocked the ray - the search stops at it, so the blocker is
+     * known without another search.
+     *
+     * @param ray         the ray to check (e.g. a shadow ray towards a light source)
+     * @param maxDistance the distance to check up to (e.g. the distance to the light source)
+     * @param minK        the threshold under which the ray is considered fully blocked
+     * @param blocker     the record which gets the blocking opaque geometry in its {@link HitRecord#geometry},
+     *                    it is untouched if no opaque geometry blocked the ray, {@code null} if not needed
+     * @return the transmittance along the ray, {@link Double3#ZERO} if it is fully blocked
+     */
+    public abstract Double3 transmittance(Ray ray, double maxDistance, double minK, HitRecord blocker);
+
 }
@@ -102,6 +102,77 @@ public class Plane extends Geometry {
     }
 
 
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        double t = intersectionDistance(ray);
+        return t > 0 && t < maxDistance ? 1 : 0;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        double t = intersectionDistance(ray);
+        if (t <= 0 || t >= hit.t)
+            return false;
+
+        hit.update(t, this, null, normal);
+        return true;
+    }
+
+    @Override
+    protected void findClosestHitsHelper(RayPacket packet) {
+        for (int mask = packet.active; mask != 0; mask &= mask - 1) {
+            int k = Integer.numberOfTrailingZeros(mask);
+            double t = intersectionDistance(packet, k);
+            if (t > 0 && t < packet.t[k])
+                packet.update(k, t, this, null, normal);
+        }
+    }
+
+    /**
+     * Calculates the distance from the head of a ray of a packet to the intersection with the plane.
+     *
+     * @param packet the packet of rays
+     * @param k      the index of the ray
+     * @return the distance, or 0 if there is no intersection in front of the ray's head
+     * @see #intersectionDistance(Ray)
+     */
+    double intersectionDistance(RayPacket packet, int k) {
+        double nX = normal.getX(), nY = normal.getY(), nZ = normal.getZ();
+
+        double denominator = alignZero(packet.dX[k] * nX + packet.dY[k] * nY + packet.dZ[k] * nZ);
+        if (denominator == 0)
+            return 0; // the ray is parallel to the plane
+
+        double numerator = (p0.getX() - packet.oX[k]) * nX
+                + (p0.getY() - packet.oY[k]) * nY
+                + (p0.getZ() - packet.oZ[k]) * nZ;
+        double t = alignZero(numerator / denominator);
+        return t > 0 ? t : 0;
+    }
+
+    /**
+     * Calculates the distance from the ray's head to the intersection with the plane, without any allocation.
+     *
+     * @param ray the ray
+     * @return the distance, or 0 if there is no intersection in front of the ray's head
+     */
+    double intersectionDistance(Ray ray) {
+        Point rayP0 = ray.getP0();
+        Vector rayDir = ray.getDir();
+        double nX = normal.getX(), nY = normal.getY(), nZ = normal.getZ();
+
+        double denominator = alignZero(rayDir.getX() * nX + rayDir.getY() * nY + rayDir.getZ() * nZ);
+        if (denominator == 0)
+            return 0; // the ray is parallel to the plane
+
+        double numerator = (p0.getX() - rayP0.getX()) * nX
+                + (p0.getY() - rayP0.getY()) * nY
+                + (p0.getZ() - rayP0.getZ()) * nZ;
+        double t = alignZero(numerator / denominator);
+        return t > 0 ? t : 0;
+    }
+
+
     public List<Vector> findVectorsOfPlane() {
         List<Vector> vectors = new LinkedList<>();
 
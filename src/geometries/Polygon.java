@@ -1,5 +1,6 @@
 package geometries;
 
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 import java.util.List;
@@ -25,6 +26,18 @@ public class Polygon extends Geometry {
     protected final Plane plane;
     private final int size;
 
+    /**
+     * The axis along which the polygon is projected into 2D - the dominant axis of its normal
+     * (0 - x, 1 - y, 2 - z), the other two axes are the coordinates of the projection
+     */
+    private final int axis;
+    /**
+     * The edge functions of the projected polygon - a, b, c for each edge, normalized, so a * u + b * v + c
+     * is the signed distance of a projected point from the edge, positive inside the polygon.
+     * {@code null} for a Triangle, which has its own intersection
+     */
+    private final double[] edges;
+
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
      * path. The polygon must be convex.
@@ -48,18 +61,35 @@ public class Polygon extends Geometry {
      *                                  </ul>
      */
     public Polygon(Point... vertices) {
+        this(true, vertices);
+    }
+
+    /**
+     * Polygon constructor which may skip the projection of the polygon, for a Triangle which has its
+     * own intersection.
+     *
+     * @param project  whether to calculate the projection used by the intersections
+     * @param vertices list of vertices according to their order by edge path
+     * @throws IllegalArgumentException in any case of illegal combination of vertices
+     * @see #Polygon(Point...)
+     */
+    Polygon(boolean project, Point... vertices) {
         if (vertices.length < 3)
             throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
         this.vertices = List.of(vertices);
         size = vertices.length;
+        box = new BoundingBox(vertices);
 
         // Generate the plane according to the first three vertices and associate the
         // polygon with this plane.
         // The plane holds the invariant normal (orthogonal unit) vector to the polygon
         plane = new Plane(vertices[0], vertices[1], vertices[2]);
+        Vector n = plane.getNormal();
+        double nX = Math.abs(n.getX()), nY = Math.abs(n.getY()), nZ = Math.abs(n.getZ());
+        axis = nX >= nY && nX >= nZ ? 0 : nY >= nZ ? 1 : 2;
+        edges = project ? projectEdges(vertices) : null;
         if (size == 3) return; // no need for more tests for a Triangle
 
-        Vector n = plane.getNormal();
         // Subtracting any subsequent points will throw an IllegalArgumentException
         // because of Zero Vector if they are in the same point
         Vector edge1 = vertices[vertices.length - 1].subtract(vertices[vertices.length - 2]);
@@ -93,8 +123,131 @@ public class Polygon extends Geometry {
     }
 
 
+    /**
+     * Calculates the edge functions of the polygon projected along its dominant axis. The projection
+     * keeps the polygon convex and non-degenerate, so a point is inside the polygon if it is on the
+     * inner side of all the projected edges.
+     *
+     * @param vertices the vertices of the polygon
+     * @return the edge functions
+     */
+    private double[] projectEdges(Point[] vertices) {
+        double[] result = new double[3 * size];
+        for (int i = 0; i < size; i++) {
+            Point p1 = vertices[i], p2 = vertices[(i + 1) % size];
+            double u1 = u(p1.getX(), p1.getY(), p1.getZ()), v1 = v(p1.getX(), p1.getY(), p1.getZ());
+            double du = u(p2.getX(), p2.getY(), p2.getZ()) - u1, dv = v(p2.getX(), p2.getY(), p2.getZ()) - v1;
+            double length = Math.sqrt(du * du + dv * dv);
+            result[3 * i] = -dv / length;
+            result[3 * i + 1] = du / length;
+            result[3 * i + 2] = (dv * u1 - du * v1) / length;
+        }
+
+        // turn the edges inwards - the third vertex is inside the first edge
+        Point p3 = vertices[2];
+        if (result[0] * u(p3.getX(), p3.getY(), p3.getZ()) + result[1] * v(p3.getX(), p3.getY(), p3.getZ())
+                + result[2] < 0)
+            for (int i = 0; i < result.length; i++)
+                result[i] = -result[i];
+        return result;
+    }
+
+    /**
+     * Returns the first coordinate of the projection of a point.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @param z the z coordinate of the point
+     * @return the first coordinate of the projection
+     */
+    private double u(double x, double y, double z) {
+        return axis == 0 ? y : axis == 1 ? z : x;
+    }
+
+    /**
+     * Returns the second coordinate of the projection of a point.
+     *
+     * @param x the x coordinate of the point
+     * @param y the y coordinate of the point
+     * @param z the z coordinate of the point
+     * @return the second coordinate of the projection
+     */
+    private double v(double x, double y, double z) {
+        return axis == 0 ? z : axis == 1 ? x : y;
+    }
+
+    /**
+     * Checks if a ray which intersects the plane of the polygon passes inside the polygon, without any
+     * allocation. The intersection point is projected into 2D and tested against the edge functions.
+     * A point on an edge or a vertex isn't inside.
+     *
+     * @param oX the x coordinate of the ray's head
+     * @param oY the y coordinate of the ray's head
+     * @param oZ the z coordinate of the ray's head
+     * @param dX the x coordinate of the ray's direction
+     * @param dY the y coordinate of the ray's direction
+     * @param dZ the z coordinate of the ray's direction
+     * @param t  the distance of the intersection with the plane from the ray's head
+     * @return {@code true} if the intersection point is inside the polygon, {@code false} otherwise
+     */
+    private boolean isInside(double oX, double oY, double oZ, double dX, double dY, double dZ, double t) {
+        double x = oX + t * dX, y = oY + t * dY, z = oZ + t * dZ;
+        double u = u(x, y, z), v = v(x, y, z);
+        for (int i = 0; i < edges.length; i += 3)
+            if (alignZero(edges[i] * u + edges[i + 1] * v + edges[i + 2]) <= 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Calculates the distance from the ray's head to the intersection with the polygon.
+     *
+     * @param ray the ray
+     * @return the distance, or 0 if there is no intersection in front of the ray's head
+     */
+    private double intersectionDistance(Ray ray) {
+        double t = plane.intersectionDistance(ray);
+        if (t == 0)
+            return 0;
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return isInside(p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(), t) ? t : 0;
+    }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        double t = intersectionDistance(ray);
+        return t > 0 && t < maxDistance ? 1 : 0;
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        double t = plane.intersectionDistance(ray);
+        if (t <= 0 || t >= hit.t)
+            return false;
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        if (!isInside(p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(), t))
+            return false;
+
+        hit.update(t, this, null, plane.getNormal());
+        return true;
+    }
+
+    @Override
+    protected void findClosestHitsHelper(RayPacket packet) {
+        for (int mask = packet.active; mask != 0; mask &= mask - 1) {
+            int k = Integer.numberOfTrailingZeros(mask);
+            double t = plane.intersectionDistance(packet, k);
+            if (t > 0 && t < packet.t[k]
+                    && isInside(packet.oX[k], packet.oY[k], packet.oZ[k], packet.dX[k], packet.dY[k], packet.dZ[k], t))
+                packet.update(k, t, this, null, plane.getNormal());
+        }
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        return null;
+        double t = intersectionDistance(ray);
+        return t == 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
     }
 }
@@ -0,0 +1,153 @@
+package geometries;
+
+import geometries.Intersectable.HitRecord;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * A packet of rays which are intersected with the geometries together (e.g. the primary rays of
+ * neighbouring pixels). The rays are kept as a structure of arrays - the coordinates of all the
+ * heads and directions are in flat arrays - so a geometry tests all the rays of the packet in one
+ * tight loop over its precomputed data, and a box of the hierarchy is tested once for the whole
+ * packet: its subtree is skipped only if all the rays miss it, and otherwise only the rays which
+ * enter it are active in the subtree. Geometries without a packet intersection test the active rays
+ * one by one.
+ * The closest intersection of each ray is kept in the packet and is read by {@link #store(int, HitRecord)}.
+ */
+public class RayPacket {
+    /**
+     * The maximal amount of rays in a packet
+     */
+    public static final int MAX_SIZE = 16;
+
+    final Ray[] rays = new Ray[MAX_SIZE];
+    final double[] oX = new double[MAX_SIZE], oY = new double[MAX_SIZE], oZ = new double[MAX_SIZE];
+    final double[] dX = new double[MAX_SIZE], dY = new double[MAX_SIZE], dZ = new double[MAX_SIZE];
+
+    /**
+     * The distance of the closest intersection of each ray (infinity while nothing was found)
+     */
+    final double[] t = new double[MAX_SIZE];
+    final Geometry[] geometries = new Geometry[MAX_SIZE];
+    final Point[] points = new Point[MAX_SIZE];
+    final Vector[] normals = new Vector[MAX_SIZE];
+    /**
+     * The barycentric coordinates of the intersection of each ray, if it is in a triangle
+     */
+    final double[] u = new double[MAX_SIZE], v = new double[MAX_SIZE];
+
+    /**
+     * A record for the rays which are tested one by one
+     */
+    final HitRecord scalarHit = new HitRecord();
+
+    int size = 0;
+
+    /**
+     * The mask of the active rays - bit k is set if ray k is tested in the current subtree
+     */
+    int active = 0;
+
+    /**
+     * Loads a range of rays into the packet, and clears the intersections.
+     *
+     * @param rays  the array of the rays
+     * @param from  the index of the first ray of the packet
+     * @param count the amount of rays in the packet
+     * @return this packet
+     * @throws IllegalArgumentException if the amount of rays is not between 1 and {@link #MAX_SIZE}
+     */
+    public RayPacket load(Ray[] rays, int from, int count) {
+        if (count < 1 || count > MAX_SIZE)
+            throw new IllegalArgumentException("A packet holds 1 to " + MAX_SIZE + " rays");
+
+        size = count;
+        for (int k = 0; k < count; k++) {
+            Ray ray = rays[from + k];
+            Point p0 = ray.getP0();
+            Vector dir = ray.getDir();
+            this.rays[k] = ray;
+            oX[k] = p0.getX();
+            oY[k] = p0.getY();
+            oZ[k] = p0.getZ();
+            dX[k] = dir.getX();
+            dY[k] = dir.getY();
+            dZ[k] = dir.getZ();
+        }
+        return clear();
+    }
+
+    /**
+     * Clears the intersections of the rays, so the packet may be intersected again.
+     *
+     * @return this packet
+     */
+    RayPacket clear() {
+        active = (1 << size) - 1;
+        for (int k = 0; k < size; k++) {
+            t[k] = Double.POSITIVE_INFINITY;
+            geometries[k] = null;
+            points[k] = null;
+            normals[k] = null;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the amount of rays in the packet.
+     *
+     * @return the amount of rays
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Updates the closest intersection of a ray of the packet.
+     *
+     * @param k        the index of the ray
+     * @param t        the distance of the intersection from the ray's head
+     * @param geometry the intersected geometry
+     * @param point    the intersection point, {@code null} to calculate it when needed
+     * @param normal   the normal at the intersection point, {@code null} to calculate it when needed
+     */
+    void update(int k, double t, Geometry geometry, Point point, Vector normal) {
+        update(k, t, geometry, point, normal, 0, 0);
+    }
+
+    /**
+     * Updates the closest intersection of a ray of the packet with an intersection in a triangle.
+     *
+     * @param k        the index of the ray
+     * @param t        the distance of the intersection from the ray's head
+     * @param geometry the intersected geometry
+     * @param point    the intersection point, {@code null} to calculate it when needed
+     * @param normal   the normal at the intersection point, {@code null} to calculate it when needed
+     * @param u        the barycentric weight of the second vertex of the triangle
+     * @param v        the barycentric weight of the third vertex of the triangle
+     */
+    void update(int k, double t, Geometry geometry, Point point, Vector normal, double u, double v) {
+        this.t[k] = t;
+        geometries[k] = geometry;
+        points[k] = point;
+        normals[k] = normal;
+        this.u[k] = u;
+        this.v[k] = v;
+    }
+
+    /**
+     * Copies the closest intersection of a ray of the packet into a hit record.
+     *
+     * @param k   the index of the ray
+     * @param hit the record to fill, it is cleared if the ray has no intersection
+     * @return {@code true} if the ray has an intersection, {@code false} otherwise
+     */
+    public boolean store(int k, HitRecord hit) {
+        hit.reset();
+        if (geometries[k] == null)
+            return false;
+        hit.update(t[k], geometries[k], points[k], normals[k], u[k], v[k]);
+        return true;
+    }
+}
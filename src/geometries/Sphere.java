@@ -5,7 +5,6 @@ import primitives.*;
 import java.util.List;
 
 import static primitives.Util.alignZero;
-import static primitives.Util.isZero;
 
 /**
  * The Sphere class represents a geometric sphere object in 3D space.
@@ -13,6 +12,10 @@ import static primitives.Util.isZero;
  */
 public class Sphere extends RadialGeometry {
     private final Point center;
+    /**
+     * The square of the radius, calculated once for the intersections
+     */
+    private final double radiusSquared;
 
     /**
      * Constructs a sphere object with the given radius and center point.
@@ -23,6 +26,9 @@ public class Sphere extends RadialGeometry {
     public Sphere(double radius, Point center) {
         super(radius);
         this.center = center;
+        radiusSquared = radius * radius;
+        box = new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
     }
 
     /**
@@ -48,53 +54,103 @@ public class Sphere extends RadialGeometry {
 
 
     @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        try {
-            Vector vector = ray.getP0().subtract(center);
-            double a = ray.getDir().dotProduct(ray.getDir());
-            double b = vector.scale(2).dotProduct(ray.getDir());
-            double c = vector.dotProduct(vector) - radius * radius;
-            double discriminant = b * b - 4 * a * c;
-
-            if (isZero(discriminant)) {
-                return null; // ray is tangent to the sphere
-            }
-
-            if (discriminant < 0) {
-                return null; // no intersection points
-            }
-
-            double t1 = alignZero((-b + Math.sqrt(discriminant)) / (2 * a));
-            double t2 = alignZero((-b - Math.sqrt(discriminant)) / (2 * a));
-            if(t1<0){
-                if(t2<0){
-                    return null;
-                }else {
-                    return List.of(new GeoPoint(this, ray.getPoint(t2)));
-                }
-            }else if(isZero(t1)){
-                if(t2<0){
-                    return null;
-                }else {
-                    return List.of(new GeoPoint(this, ray.getPoint(t2)));
-                }
-            }else{
-                if(t2>0){
-                    return List.of(new GeoPoint(this, ray.getPoint(t1)),new GeoPoint(this, ray.getPoint(t2)));
-                }else {
-                    return List.of(new GeoPoint(this, ray.getPoint(t1)));
-                }
-            }
-        } catch (IllegalArgumentException e) {
-            double a = ray.getDir().dotProduct(ray.getDir());
-            double c = -radius * radius;
-            double t1 = alignZero(-c / a);
-
-            if (t1 > 0) {
-                return List.of(new GeoPoint(this, ray.getPoint(t1))); // return the intersection point with real direction
-            } else {
-                return null; // no intersection points with real direction
-            }
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        Point rayP0 = ray.getP0();
+        Vector rayDir = ray.getDir();
+        double lX = rayP0.getX() - center.getX();
+        double lY = rayP0.getY() - center.getY();
+        double lZ = rayP0.getZ() - center.getZ();
+
+        double b = lX * rayDir.getX() + lY * rayDir.getY() + lZ * rayDir.getZ();
+        double c = lX * lX + lY * lY + lZ * lZ - radiusSquared;
+        double discriminant = alignZero(b * b - c);
+        if (discriminant <= 0)
+            return false;
+
+        // the closer root first, the farther one only if the ray starts inside the sphere
+        double root = Math.sqrt(discriminant);
+        double t = alignZero(-b - root);
+        if (t <= 0)
+            t = alignZero(-b + root);
+        if (t <= 0 || t >= hit.t)
+            return false;
+
+        hit.update(t, this, null, null);
+        return true;
+    }
+
+    @Override
+    protected void findClosestHitsHelper(RayPacket packet) {
+        double cX = center.getX(), cY = center.getY(), cZ = center.getZ();
+        for (int mask = packet.active; mask != 0; mask &= mask - 1) {
+            int k = Integer.numberOfTrailingZeros(mask);
+            double lX = packet.oX[k] - cX;
+            double lY = packet.oY[k] - cY;
+            double lZ = packet.oZ[k] - cZ;
+
+            double b = lX * packet.dX[k] + lY * packet.dY[k] + lZ * packet.dZ[k];
+            double c = lX * lX + lY * lY + lZ * lZ - radiusSquared;
+            double discriminant = alignZero(b * b - c);
+            if (discriminant <= 0)
+                continue;
+
+            double root = Math.sqrt(discriminant);
+            double t = alignZero(-b - root);
+            if (t <= 0)
+                t = alignZero(-b + root);
+            if (t > 0 && t < packet.t[k])
+                packet.update(k, t, this, null, null);
         }
     }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        Point rayP0 = ray.getP0();
+        Vector rayDir = ray.getDir();
+        double lX = rayP0.getX() - center.getX();
+        double lY = rayP0.getY() - center.getY();
+        double lZ = rayP0.getZ() - center.getZ();
+
+        // the direction is normalized, so the quadratic is t^2 + 2bt + c = 0
+        double b = lX * rayDir.getX() + lY * rayDir.getY() + lZ * rayDir.getZ();
+        double c = lX * lX + lY * lY + lZ * lZ - radiusSquared;
+        double discriminant = alignZero(b * b - c);
+        if (discriminant <= 0)
+            return 0; // no intersection points or the ray is tangent to the sphere
+
+        double root = Math.sqrt(discriminant);
+        double t1 = alignZero(-b - root);
+        double t2 = alignZero(-b + root);
+        int count = 0;
+        if (t1 > 0 && t1 < maxDistance)
+            count++;
+        if (t2 > 0 && t2 < maxDistance)
+            count++;
+        return count;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Point rayP0 = ray.getP0();
+        Vector rayDir = ray.getDir();
+        double lX = rayP0.getX() - center.getX();
+        double lY = rayP0.getY() - center.getY();
+        double lZ = rayP0.getZ() - center.getZ();
+
+        // the half-b form of the quadratic - no exception when the ray starts at the center
+        double b = lX * rayDir.getX() + lY * rayDir.getY() + lZ * rayDir.getZ();
+        double c = lX * lX + lY * lY + lZ * lZ - radiusSquared;
+        double discriminant = alignZero(b * b - c);
+        if (discriminant <= 0)
+            return null; // no intersection points or the ray is tangent to the sphere
+
+        // the farther point first
+        double root = Math.sqrt(discriminant);
+        double t1 = alignZero(-b + root);
+        if (t1 <= 0)
+            return null;
+        double t2 = alignZero(-b - root);
+        return t2 <= 0 ? List.of(new GeoPoint(this, ray.getPoint(t1)))
+                : List.of(new GeoPoint(this, ray.getPoint(t1)), new GeoPoint(this, ray.getPoint(t2)));
+    }
 }
@@ -9,9 +9,18 @@ import primitives.*;
 import java.util.List;
 
 import static primitives.Util.alignZero;
-import static primitives.Util.isZero;
 
 public class Triangle extends Polygon {
+    /**
+     * The square of the threshold under which a normalized value is considered zero (2^-40)
+     */
+    private static final double ZERO_SQUARED = Math.pow(2, -80);
+
+    /**
+     * The first vertex, the edges from it to the second and the third vertices and the squared length
+     * of their cross product - precalculated for the intersections
+     */
+    private final double aX, aY, aZ, e1X, e1Y, e1Z, e2X, e2Y, e2Z, normalSquared;
 
     /**
      * Constructs a new Triangle object with the specified vertices.
@@ -21,45 +30,137 @@ public class Triangle extends Polygon {
      * @param p3 The third vertex of the triangle.
      */
     public Triangle(Point p1, Point p2, Point p3) {
-        super(p1, p2, p3);
+        super(false, p1, p2, p3);
+        aX = p1.getX();
+        aY = p1.getY();
+        aZ = p1.getZ();
+        e1X = p2.getX() - aX;
+        e1Y = p2.getY() - aY;
+        e1Z = p2.getZ() - aZ;
+        e2X = p3.getX() - aX;
+        e2Y = p3.getY() - aY;
+        e2Z = p3.getZ() - aZ;
+        normalSquared = normalSquared(e1X, e1Y, e1Z, e2X, e2Y, e2Z);
     }
 
-
-
     @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        Point vertex1 = vertices.get(0);
-        Point vertex2 = vertices.get(1);
-        Point vertex3 = vertices.get(2);
-
-        List<GeoPoint> intersections = plane.findGeoIntersectionsHelper(ray);
-
-        if (intersections == null) {
-            return null;
-        }
-
-        Point rayOrigin = ray.getP0();
-        Vector rayDirection = ray.getDir();
+    protected int countIntersections(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return intersect(aX, aY, aZ, e1X, e1Y, e1Z, e2X, e2Y, e2Z, normalSquared,
+                p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(), maxDistance, null) > 0 ? 1 : 0;
+    }
 
-        Vector edge1 = (vertex1.subtract(rayOrigin));
-        Vector edge2 = (vertex2.subtract(rayOrigin));
-        Vector edge3 = (vertex3.subtract(rayOrigin));
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double t = intersect(aX, aY, aZ, e1X, e1Y, e1Z, e2X, e2Y, e2Z, normalSquared,
+                p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(), hit.t, hit);
+        if (t == 0)
+            return false;
+
+        hit.update(t, this, null, plane.getNormal(), hit.u, hit.v);
+        return true;
+    }
 
-        double normal1 = alignZero(rayDirection.dotProduct((edge1.crossProduct(edge2)).normalize()));
-        if (isZero(normal1)) {
-            return null;
+    @Override
+    protected void findClosestHitsHelper(RayPacket packet) {
+        HitRecord barycentric = packet.scalarHit;
+        for (int mask = packet.active; mask != 0; mask &= mask - 1) {
+            int k = Integer.numberOfTrailingZeros(mask);
+            double t = intersect(aX, aY, aZ, e1X, e1Y, e1Z, e2X, e2Y, e2Z, normalSquared,
+                    packet.oX[k], packet.oY[k], packet.oZ[k], packet.dX[k], packet.dY[k], packet.dZ[k],
+                    packet.t[k], barycentric);
+            if (t > 0)
+                packet.update(k, t, this, null, plane.getNormal(), barycentric.u, barycentric.v);
         }
+    }
 
-        double normal2 = alignZero(rayDirection.dotProduct((edge2.crossProduct(edge3)).normalize()));
-        if (normal1 * normal2 <= 0) {
-            return null;
-        }
+    /**
+     * Calculates the squared length of the cross product of two edges of a triangle.
+     *
+     * @param e1X the x coordinate of the first edge
+     * @param e1Y the y coordinate of the first edge
+     * @param e1Z the z coordinate of the first edge
+     * @param e2X the x coordinate of the second edge
+     * @param e2Y the y coordinate of the second edge
+     * @param e2Z the z coordinate of the second edge
+     * @return the squared length of the cross product
+     */
+    static double normalSquared(double e1X, double e1Y, double e1Z, double e2X, double e2Y, double e2Z) {
+        double nX = e1Y * e2Z - e1Z * e2Y, nY = e1Z * e2X - e1X * e2Z, nZ = e1X * e2Y - e1Y * e2X;
+        return nX * nX + nY * nY + nZ * nZ;
+    }
 
-        double normal3 = alignZero(rayDirection.dotProduct((edge3.crossProduct(edge1)).normalize()));
-        if (normal1 * normal3 <= 0) {
-            return null;
+    /**
+     * Intersects a ray with a triangle given by a vertex and the edges from it to the other vertices
+     * (the Moller-Trumbore algorithm). The distance and the barycentric coordinates of the intersection
+     * are found together by a few dot and cross products of the edges - no allocation, no plane
+     * intersection and no normalization. An intersection on an edge or a vertex of the triangle, or
+     * of a ray which is parallel to the triangle, isn't counted.
+     *
+     * @param aX            the x coordinate of the first vertex
+     * @param aY            the y coordinate of the first vertex
+     * @param aZ            the z coordinate of the first vertex
+     * @param e1X           the x coordinate of the edge to the second vertex
+     * @param e1Y           the y coordinate of the edge to the second vertex
+     * @param e1Z           the z coordinate of the edge to the second vertex
+     * @param e2X           the x coordinate of the edge to the third vertex
+     * @param e2Y           the y coordinate of the edge to the third vertex
+     * @param e2Z           the z coordinate of the edge to the third vertex
+     * @param normalSquared the squared length of the cross product of the edges
+     * @param oX            the x coordinate of the ray's head
+     * @param oY            the y coordinate of the ray's head
+     * @param oZ            the z coordinate of the ray's head
+     * @param dX            the x coordinate of the ray's direction
+     * @param dY            the y coordinate of the ray's direction
+     * @param dZ            the z coordinate of the ray's direction
+     * @param maxDistance   the distance to check up to
+     * @param barycentric   the record which gets the barycentric coordinates of the intersection
+     *                      ({@link HitRecord#u} and {@link HitRecord#v}), {@code null} if they aren't needed
+     * @return the distance of the intersection from the ray's head, or 0 if there is no intersection
+     * in front of the ray's head closer than the maximal distance
+     */
+    static double intersect(double aX, double aY, double aZ, double e1X, double e1Y, double e1Z,
+                            double e2X, double e2Y, double e2Z, double normalSquared,
+                            double oX, double oY, double oZ, double dX, double dY, double dZ,
+                            double maxDistance, HitRecord barycentric) {
+        // the determinant is the dot product of the direction with the (not normalized) normal,
+        // it is almost zero if the ray is parallel to the triangle
+        double pX = dY * e2Z - dZ * e2Y, pY = dZ * e2X - dX * e2Z, pZ = dX * e2Y - dY * e2X;
+        double determinant = e1X * pX + e1Y * pY + e1Z * pZ;
+        if (determinant * determinant < ZERO_SQUARED * normalSquared)
+            return 0;
+        double inverse = 1 / determinant;
+
+        double sX = oX - aX, sY = oY - aY, sZ = oZ - aZ;
+        double u = alignZero((sX * pX + sY * pY + sZ * pZ) * inverse);
+        if (u <= 0 || u >= 1)
+            return 0;
+
+        double qX = sY * e1Z - sZ * e1Y, qY = sZ * e1X - sX * e1Z, qZ = sX * e1Y - sY * e1X;
+        double v = alignZero((dX * qX + dY * qY + dZ * qZ) * inverse);
+        if (v <= 0 || alignZero(u + v - 1) >= 0)
+            return 0;
+
+        double t = alignZero((e2X * qX + e2Y * qY + e2Z * qZ) * inverse);
+        if (t <= 0 || t >= maxDistance)
+            return 0;
+
+        if (barycentric != null) {
+            barycentric.u = u;
+            barycentric.v = v;
         }
+        return t;
+    }
 
-        return List.of(new GeoPoint(this, intersections.get(0).point));
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double t = intersect(aX, aY, aZ, e1X, e1Y, e1Z, e2X, e2Y, e2Z, normalSquared,
+                p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(), Double.POSITIVE_INFINITY, null);
+        return t == 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
     }
 }
@@ -0,0 +1,399 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * The TriangleMesh class represents an indexed mesh of triangles with a single emission and material.
+ * The vertices are kept in a flat array of coordinates and every triangle is three indices into it,
+ * so a triangle costs a few numbers instead of a {@link Triangle} object with its list of points,
+ * plane and box. The unit normals of the triangles are calculated once, as the normals of their
+ * planes. The mesh holds its own bounding volume hierarchy, also in flat arrays - the nodes are
+ * stored in depth-first order, so the left child of a node follows it and the traversal walks
+ * through contiguous memory.
+ * The intersections are exactly the same as of the separate triangles.
+ */
+public class TriangleMesh extends Geometry {
+    /**
+     * The maximal amount of triangles in a leaf of the hierarchy
+     */
+    private static final int LEAF_SIZE = 4;
+
+    /**
+     * The coordinates of the vertices - x0, y0, z0, x1, ...
+     */
+    private final double[] vertices;
+    /**
+     * The indices of the vertices of the triangles - three for each triangle
+     */
+    private final int[] indices;
+    /**
+     * The unit normals of the triangles - nx0, ny0, nz0, nx1, ...
+     */
+    private final double[] normals;
+
+    /**
+     * The triangles ordered by the leaves of the hierarchy
+     */
+    private final int[] order;
+    /**
+     * The boxes of the nodes - minX, minY, minZ, maxX, maxY, maxZ for each node
+     */
+    private double[] bounds;
+    /**
+     * Two numbers for each node - of a leaf: the first position in {@link #order} and the amount
+     * of triangles, of an inner node: the index of the right child and 0
+     */
+    private int[] nodes;
+    private int nodeCount = 0;
+
+    /**
+     * Constructs a mesh from flat arrays of vertices and indices.
+     *
+     * @param vertices the coordinates of the vertices - x0, y0, z0, x1, ...
+     * @param indices  the indices of the vertices of the triangles - three for each triangle
+     * @throws IllegalArgumentException if the arrays are not of whole vertices and triangles, if there
+     *                                  are no triangles, if an index is out of the vertices or if a
+     *                                  triangle is degenerate
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices array must hold three coordinates for each vertex");
+        if (indices.length == 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("The indices array must hold three indices for each triangle");
+        int vertexCount = vertices.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("A triangle index is out of the vertices");
+
+        this.vertices = vertices.clone();
+        this.indices = indices.clone();
+
+        int triangles = indices.length / 3;
+        normals = new double[3 * triangles];
+        double[] centers = new double[3 * triangles];
+        for (int i = 0; i < triangles; i++) {
+            // the same normal as of the plane of a Triangle - a degenerate triangle throws here
+            Point p1 = vertex(i, 0), p2 = vertex(i, 1), p3 = vertex(i, 2);
+            Vector normal = p2.subtract(p1).crossProduct(p3.subtract(p1)).normalize();
+            normals[3 * i] = normal.getX();
+            normals[3 * i + 1] = normal.getY();
+            normals[3 * i + 2] = normal.getZ();
+            for (int axis = 0; axis < 3; axis++)
+                centers[3 * i + axis] = (this.vertices[3 * this.indices[3 * i] + axis]
+                        + this.vertices[3 * this.indices[3 * i + 1] + axis]
+                        + this.vertices[3 * this.indices[3 * i + 2] + axis]) / 3;
+        }
+
+        order = new int[triangles];
+        for (int i = 0; i < triangles; i++)
+            order[i] = i;
+        bounds = new double[6 * (2 * triangles - 1)];
+        nodes = new int[2 * (2 * triangles - 1)];
+        build(centers, 0, triangles);
+        bounds = Arrays.copyOf(bounds, 6 * nodeCount);
+        nodes = Arrays.copyOf(nodes, 2 * nodeCount);
+        box = new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    /**
+     * Returns the amount of triangles in the mesh.
+     *
+     * @return the amount of triangles
+     */
+    public int size() {
+        return indices.length / 3;
+    }
+
+    /**
+     * Returns a vertex of a triangle.
+     *
+     * @param triangle the index of the triangle
+     * @param corner   the corner of the triangle - 0, 1 or 2
+     * @return the vertex
+     */
+    public Point vertex(int triangle, int corner) {
+        int v = 3 * indices[3 * triangle + corner];
+        return new Point(vertices[v], vertices[v + 1], vertices[v + 2]);
+    }
+
+    //region Hierarchy
+    /**
+     * Builds the subtree of a range of triangles - the triangles are split at the median of their
+     * centers along the longest axis of the centers.
+     *
+     * @param centers the centers of the triangles
+     * @param from    the first position of the range in {@link #order}
+     * @param to      the position after the range
+     */
+    private void build(double[] centers, int from, int to) {
+        int node = nodeCount++;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        double[] centerMin = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY };
+        double[] centerMax = { Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        for (int i = from; i < to; i++) {
+            int triangle = order[i];
+            for (int corner = 0; corner < 3; corner++) {
+                int v = 3 * indices[3 * triangle + corner];
+                minX = Math.min(minX, vertices[v]);
+                minY = Math.min(minY, vertices[v + 1]);
+                minZ = Math.min(minZ, vertices[v + 2]);
+                maxX = Math.max(maxX, vertices[v]);
+                maxY = Math.max(maxY, vertices[v + 1]);
+                maxZ = Math.max(maxZ, vertices[v + 2]);
+            }
+            for (int axis = 0; axis < 3; axis++) {
+                centerMin[axis] = Math.min(centerMin[axis], centers[3 * triangle + axis]);
+                centerMax[axis] = Math.max(centerMax[axis], centers[3 * triangle + axis]);
+            }
+        }
+        bounds[6 * node] = minX;
+        bounds[6 * node + 1] = minY;
+        bounds[6 * node + 2] = minZ;
+        bounds[6 * node + 3] = maxX;
+        bounds[6 * node + 4] = maxY;
+        bounds[6 * node + 5] = maxZ;
+
+        int axis = 0;
+        for (int a = 1; a < 3; a++)
+            if (centerMax[a] - centerMin[a] > centerMax[axis] - centerMin[axis])
+                axis = a;
+        if (to - from <= LEAF_SIZE || centerMax[axis] == centerMin[axis]) {
+            nodes[2 * node] = from;
+            nodes[2 * node + 1] = to - from;
+            return;
+        }
+
+        int mid = (from + to) / 2;
+        select(centers, axis, from, to - 1, mid);
+        build(centers, from, mid);
+        nodes[2 * node] = nodeCount;
+        nodes[2 * node + 1] = 0;
+        build(centers, mid, to);
+    }
+
+    /**
+     * Reorders a range of triangles so the triangle at a given position is the one which would be
+     * there if the range was sorted by the centers, the triangles before it are not after it and the
+     * triangles after it are not before it (quickselect).
+     *
+     * @param centers the centers of the triangles
+     * @param axis    the axis of the order
+     * @param left    the first position of the range
+     * @param right   the last position of the range
+     * @param k       the position to select
+     */
+    private void select(double[] centers, int axis, int left, int right, int k) {
+        while (left < right) {
+            double pivot = centers[3 * order[(left + right) >>> 1] + axis];
+            int i = left, j = right;
+            while (i <= j) {
+                while (centers[3 * order[i] + axis] < pivot) i++;
+                while (centers[3 * order[j] + axis] > pivot) j--;
+                if (i <= j) {
+                    int temp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = temp;
+                }
+            }
+            if (k <= j)
+                right = j;
+            else if (k >= i)
+                left = i;
+            else
+                return;
+        }
+    }
+
+    /**
+     * Calculates the distance from the ray's head to the point where the ray enters the box of a node.
+     *
+     * @param node        the node
+     * @param p0          the head of the ray
+     * @param dir         the direction of the ray
+     * @param maxDistance the maximal distance along the ray
+     * @return the entry distance, or {@link Double#POSITIVE_INFINITY} if the ray misses the box
+     */
+    private double entryDistance(int node, Point p0, Vector dir, double maxDistance) {
+        int b = 6 * node;
+        return BoundingBox.entryDistance(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4],
+                bounds[b + 5], p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(), maxDistance);
+    }
+    //endregion
+
+    //region Intersections
+    /**
+     * Calculates the distance from the ray's head to the intersection with a triangle, by the same
+     * calculation as of a {@link Triangle}.
+     *
+     * @param triangle    the index of the triangle
+     * @param p0          the head of the ray
+     * @param dir         the direction of the ray
+     * @param maxDistance the distance to check up to
+     * @param barycentric the record which gets the barycentric coordinates of the intersection,
+     *                    {@code null} if they aren't needed
+     * @return the distance, or 0 if the ray doesn't intersect the triangle in front of its head closer
+     * than the maximal distance
+     */
+    private double intersectionDistance(int triangle, Point p0, Vector dir, double maxDistance, HitRecord barycentric) {
+        int n = 3 * triangle;
+        int v1 = 3 * indices[n], v2 = 3 * indices[n + 1], v3 = 3 * indices[n + 2];
+        double aX = vertices[v1], aY = vertices[v1 + 1], aZ = vertices[v1 + 2];
+        double e1X = vertices[v2] - aX, e1Y = vertices[v2 + 1] - aY, e1Z = vertices[v2 + 2] - aZ;
+        double e2X = vertices[v3] - aX, e2Y = vertices[v3 + 1] - aY, e2Z = vertices[v3 + 2] - aZ;
+        return Triangle.intersect(aX, aY, aZ, e1X, e1Y, e1Z, e2X, e2Y, e2Z,
+                Triangle.normalSquared(e1X, e1Y, e1Z, e2X, e2Y, e2Z),
+                p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ(), maxDistance, barycentric);
+    }
+
+    /**
+     * Returns the unit normal of a triangle.
+     *
+     * @param triangle the index of the triangle
+     * @return the normal
+     */
+    private Vector normal(int triangle) {
+        return new Vector(normals[3 * triangle], normals[3 * triangle + 1], normals[3 * triangle + 2]);
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return entryDistance(0, p0, dir, hit.t) != Double.POSITIVE_INFINITY && closestHit(0, p0, dir, hit);
+    }
+
+    /**
+     * Searches a subtree for an intersection closer than the one in the record. The ray enters the
+     * box of the subtree.
+     *
+     * @param node the root of the subtree
+     * @param p0   the head of the ray
+     * @param dir  the direction of the ray
+     * @param hit  the closest intersection found so far
+     * @return {@code true} if a closer intersection was found, {@code false} otherwise
+     */
+    private boolean closestHit(int node, Point p0, Vector dir, HitRecord hit) {
+        int count = nodes[2 * node + 1];
+        if (count > 0) {
+            boolean found = false;
+            for (int i = nodes[2 * node], end = i + count; i < end; i++) {
+                int triangle = order[i];
+                double t = intersectionDistance(triangle, p0, dir, hit.t, hit);
+                if (t > 0) {
+                    hit.update(t, this, null, normal(triangle), hit.u, hit.v);
+                    found = true;
+                }
+            }
+            return found;
+        }
+
+        // visit the closer child first, so the farther one is probably rejected by its box
+        int first = node + 1, second = nodes[2 * node];
+        double firstDistance = entryDistance(first, p0, dir, hit.t);
+        double secondDistance = entryDistance(second, p0, dir, hit.t);
+        if (secondDistance < firstDistance) {
+            int temp = first;
+            first = second;
+            second = temp;
+            double distance = firstDistance;
+            firstDistance = secondDistance;
+            secondDistance = distance;
+        }
+        boolean found = firstDistance != Double.POSITIVE_INFINITY && closestHit(first, p0, dir, hit);
+        // the farther child is skipped if the closer one has a hit before the farther box
+        if (secondDistance < hit.t)
+            found = closestHit(second, p0, dir, hit) || found;
+        return found;
+    }
+
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        return count(0, ray.getP0(), ray.getDir(), maxDistance);
+    }
+
+    /**
+     * Counts the intersections in a subtree which are closer than a given distance.
+     *
+     * @param node        the root of the subtree
+     * @param p0          the head of the ray
+     * @param dir         the direction of the ray
+     * @param maxDistance the maximal distance from the ray's head
+     * @return the amount of intersections
+     */
+    private int count(int node, Point p0, Vector dir, double maxDistance) {
+        if (entryDistance(node, p0, dir, maxDistance) == Double.POSITIVE_INFINITY)
+            return 0;
+
+        int count = nodes[2 * node + 1];
+        if (count == 0)
+            return count(node + 1, p0, dir, maxDistance) + count(nodes[2 * node], p0, dir, maxDistance);
+
+        int result = 0;
+        for (int i = nodes[2 * node], end = i + count; i < end; i++) {
+            if (intersectionDistance(order[i], p0, dir, maxDistance, null) > 0)
+                result++;
+        }
+        return result;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        List<GeoPoint> result = new LinkedList<>();
+        collect(0, ray, result);
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * Collects all the intersections in a subtree.
+     *
+     * @param node   the root of the subtree
+     * @param ray    the ray
+     * @param result the list of the intersections
+     */
+    private void collect(int node, Ray ray, List<GeoPoint> result) {
+        if (entryDistance(node, ray.getP0(), ray.getDir(), Double.POSITIVE_INFINITY) == Double.POSITIVE_INFINITY)
+            return;
+
+        int count = nodes[2 * node + 1];
+        if (count == 0) {
+            collect(node + 1, ray, result);
+            collect(nodes[2 * node], ray, result);
+            return;
+        }
+        for (int i = nodes[2 * node], end = i + count; i < end; i++) {
+            double t = intersectionDistance(order[i], ray.getP0(), ray.getDir(), Double.POSITIVE_INFINITY, null);
+            if (t > 0)
+                result.add(new GeoPoint(this, ray.getPoint(t)));
+        }
+    }
+
+    /**
+     * Returns the normal of the triangle which is the closest to the point among the triangles the
+     * point is projected into. The normal of an intersection is known when it is found, so this
+     * search over all the triangles is needed only for a point which isn't known to be an intersection.
+     *
+     * @param point a point on the mesh
+     * @return the normal of the closest triangle to the point
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        int closest = 0;
+        double closestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size(); i++) {
+            // project the point on the triangle along its normal, from a unit distance above it
+            Vector normal = normal(i);
+            double t = intersectionDistance(i, point.add(normal), normal.scale(-1), Double.POSITIVE_INFINITY, null);
+            if (t > 0 && Math.abs(t - 1) < closestDistance) {
+                closestDistance = Math.abs(t - 1);
+                closest = i;
+            }
+        }
+        return normal(closest);
+    }
+    //endregion
+}
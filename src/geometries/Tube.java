@@ -12,6 +12,7 @@ import primitives.Vector;
 import java.util.LinkedList;
 import java.util.List;
 
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 public class Tube extends RadialGeometry {
@@ -58,6 +59,60 @@ public class Tube extends RadialGeometry {
     }
 
 
+    @Override
+    protected int countIntersections(Ray ray, double maxDistance) {
+        return intersections(ray, maxDistance, null);
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        return intersections(ray, hit.t, hit) > 0;
+    }
+
+    /**
+     * Finds the intersections of a ray which are closer than a given distance, without any allocation.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance from the ray's head
+     * @param hit         the record to update with the closest intersection, {@code null} to only count them
+     * @return the amount of intersections closer than the distance
+     */
+    protected int intersections(Ray ray, double maxDistance, HitRecord hit) {
+        Point rayP0 = ray.getP0(), axisP0 = axisRay.getP0();
+        Vector d = ray.getDir(), v = axisRay.getDir();
+        double xX = rayP0.getX() - axisP0.getX(), xY = rayP0.getY() - axisP0.getY(), xZ = rayP0.getZ() - axisP0.getZ();
+        double dv = d.getX() * v.getX() + d.getY() * v.getY() + d.getZ() * v.getZ();
+        double xv = xX * v.getX() + xY * v.getY() + xZ * v.getZ();
+
+        // the quadratic at^2 + 2bt + c = 0 of the distance from the axis
+        double a = alignZero(1 - dv * dv);
+        if (a == 0)
+            return 0; // the ray is parallel to the axis
+
+        double b = d.getX() * xX + d.getY() * xY + d.getZ() * xZ - dv * xv;
+        double c = xX * xX + xY * xY + xZ * xZ - xv * xv - radius * radius;
+        double discriminant = alignZero(b * b - a * c);
+        if (discriminant <= 0)
+            return 0;
+
+        double root = Math.sqrt(discriminant);
+        double t1 = alignZero((-b - root) / a), t2 = alignZero((-b + root) / a);
+        int count = 0;
+        double closest = maxDistance;
+        if (t1 > 0 && t1 < maxDistance) {
+            count++;
+            closest = t1;
+        }
+        if (t2 > 0 && t2 < maxDistance) {
+            count++;
+            closest = Math.min(closest, t2);
+        }
+
+        if (hit != null && count > 0)
+            hit.update(closest, this, null, null);
+        return count;
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
         Vector d = ray.getDir();
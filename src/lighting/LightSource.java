@@ -32,6 +32,59 @@ public interface LightSource {
      */
     public List<Vector> getLBeam(Point p);
 
+    /**
+     * Gets the maximal amount of vectors in the beam of the light source
+     *
+     * @return the size of the beam
+     */
+    public default int getBeamSize() {
+        return 1;
+    }
+
+    /**
+     * Fills an array with the vectors from the given point to the light source - the version of
+     * {@link #getLBeam(Point)} which doesn't allocate a list
+     *
+     * @param p    the point
+     * @param beam the array for the vectors, at least {@link #getBeamSize()} long
+     * @return the amount of vectors in the beam
+     */
+    public default int getLBeam(Point p, Vector[] beam) {
+        beam[0] = getL(p);
+        return 1;
+    }
+
+    /**
+     * Gets a few vectors from the given point to the edges of the light source. If all of them
+     * are blocked the same way, the point is not in a penumbra and the whole beam is not needed
+     *
+     * @param p the point
+     * @return the probe vectors
+     */
+    public default List<Vector> getLProbes(Point p) {
+        return List.of(getL(p));
+    }
+
+    /**
+     * Retrieves the distance from the light source beyond which its contribution is negligible.
+     *
+     * @return the influence radius, infinity if the light has no limit
+     */
+    public default double getInfluenceRadius() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Checks if the light source can contribute to the given point at all, so a light which can't
+     * is skipped before any shadow ray is traced.
+     *
+     * @param p the point
+     * @return false if the light's contribution to the point is negligible, true otherwise
+     */
+    public default boolean canIlluminate(Point p) {
+        return true;
+    }
+
     /**
      * Retrieves the distance between the light source and a given point.
      *
@@ -0,0 +1,161 @@
+package lighting;
+
+import primitives.Color;
+import primitives.Point;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The LightTree class is a bounding volume hierarchy over the positions of the point lights of a
+ * scene, used to select the lights which are important for a shaded point.
+ * Every node bounds the total intensity of its lights and their weakest attenuation, so the
+ * contribution of a whole cluster of lights to a point is bounded by the distance from the point to
+ * the box of the cluster. A cluster whose bound is lower than the threshold is skipped as a whole,
+ * so a distant group of lights costs a single test instead of a test per light, and the error of
+ * skipping it is at most its bound. Lights without a position (e.g. directional lights) are always
+ * selected.
+ */
+public class LightTree {
+    /**
+     * A node of the tree - a leaf holds a single light
+     */
+    private static class Node {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        /**
+         * The sum of the strongest components of the intensities of the lights
+         */
+        double intensity = 0;
+        /**
+         * The minimal attenuation coefficients of the lights
+         */
+        double kC = Double.POSITIVE_INFINITY, kL = Double.POSITIVE_INFINITY, kQ = Double.POSITIVE_INFINITY;
+        Node left, right;
+        PointLight light;
+    }
+
+    private final List<LightSource> unbounded = new ArrayList<>();
+    private final Node root;
+    private final double threshold;
+
+    /**
+     * Builds a light tree over the given lights.
+     *
+     * @param lights    the lights of the scene
+     * @param threshold the bounded intensity under which a cluster of lights is skipped, 0 to select
+     *                  all the lights which may contribute
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public LightTree(List<LightSource> lights, double threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("The threshold must not be negative");
+        this.threshold = threshold;
+
+        List<PointLight> bounded = new ArrayList<>();
+        for (LightSource light : lights) {
+            if (light instanceof PointLight pointLight)
+                bounded.add(pointLight);
+            else
+                unbounded.add(light);
+        }
+        root = bounded.isEmpty() ? null : build(bounded);
+    }
+
+    /**
+     * Builds a subtree over a list of lights - the lights are split at the median of their positions
+     * along the longest axis of their box.
+     *
+     * @param lights the lights of the subtree
+     * @return the root of the subtree
+     */
+    private static Node build(List<PointLight> lights) {
+        Node node = new Node();
+        for (PointLight light : lights) {
+            Point p = light.getPosition();
+            node.minX = Math.min(node.minX, p.getX());
+            node.minY = Math.min(node.minY, p.getY());
+            node.minZ = Math.min(node.minZ, p.getZ());
+            node.maxX = Math.max(node.maxX, p.getX());
+            node.maxY = Math.max(node.maxY, p.getY());
+            node.maxZ = Math.max(node.maxZ, p.getZ());
+            node.intensity += light.getIntensity().difference(Color.BLACK);
+            node.kC = Math.min(node.kC, light.getKc());
+            node.kL = Math.min(node.kL, light.getKl());
+            node.kQ = Math.min(node.kQ, light.getKq());
+        }
+
+        if (lights.size() == 1) {
+            node.light = lights.get(0);
+            return node;
+        }
+
+        double dx = node.maxX - node.minX, dy = node.maxY - node.minY, dz = node.maxZ - node.minZ;
+        Comparator<PointLight> order = dx >= dy && dx >= dz ? Comparator.comparingDouble(l -> l.getPosition().getX())
+                : dy >= dz ? Comparator.comparingDouble(l -> l.getPosition().getY())
+                : Comparator.comparingDouble(l -> l.getPosition().getZ());
+        lights.sort(order);
+
+        int mid = lights.size() / 2;
+        node.left = build(lights.subList(0, mid));
+        node.right = build(lights.subList(mid, lights.size()));
+        return node;
+    }
+
+    /**
+     * Selects the lights which are important for a point - the lights without a position, and the
+     * lights of the clusters whose bounded contribution to the point is not lower than the threshold.
+     *
+     * @param p        the point
+     * @param selected the list to fill with the selected lights, it is cleared first
+     * @return the list of the selected lights
+     */
+    public List<LightSource> select(Point p, List<LightSource> selected) {
+        selected.clear();
+        selected.addAll(unbounded);
+        if (root != null)
+            select(root, p.getX(), p.getY(), p.getZ(), selected);
+        return selected;
+    }
+
+    /**
+     * Selects the important lights of a subtree.
+     *
+     * @param node     the root of the subtree
+     * @param x        the x coordinate of the point
+     * @param y        the y coordinate of the point
+     * @param z        the z coordinate of the point
+     * @param selected the list of the selected lights
+     */
+    private void select(Node node, double x, double y, double z, List<LightSource> selected) {
+        if (threshold > 0 && bound(node, x, y, z) < threshold)
+            return;
+
+        if (node.light != null)
+            selected.add(node.light);
+        else {
+            select(node.left, x, y, z, selected);
+            select(node.right, x, y, z, selected);
+        }
+    }
+
+    /**
+     * Bounds the contribution of the lights of a node to a point - their total intensity attenuated
+     * by the weakest attenuation at the distance from the point to the box of the node.
+     *
+     * @param node the node
+     * @param x    the x coordinate of the point
+     * @param y    the y coordinate of the point
+     * @param z    the z coordinate of the point
+     * @return the upper bound of the intensity of the lights at the point
+     */
+    private static double bound(Node node, double x, double y, double z) {
+        double dx = Math.max(0, Math.max(node.minX - x, x - node.maxX));
+        double dy = Math.max(0, Math.max(node.minY - y, y - node.maxY));
+        double dz = Math.max(0, Math.max(node.minZ - z, z - node.maxZ));
+        double d = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        double attenuation = node.kC + node.kL * d + node.kQ * d * d;
+        return attenuation <= 0 ? Double.POSITIVE_INFINITY : node.intensity / attenuation;
+    }
+}
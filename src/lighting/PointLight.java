@@ -1,10 +1,8 @@
 package lighting;
 
 import primitives.*;
-import geometries.*;
+import java.util.Arrays;
 import java.util.List;
-import java.util.LinkedList;
-import static primitives.Util.*;
 
 public class PointLight extends Light implements LightSource {
     private Point position;
@@ -12,6 +10,16 @@ public class PointLight extends Light implements LightSource {
     private double kL = 0;
     private double kQ = 0;
 
+    /**
+     * The intensity under which the light's contribution is negligible
+     */
+    private double cutoff = 0;
+
+    /**
+     * The distance beyond which the attenuated intensity is lower than the cutoff
+     */
+    private double influenceRadius = Double.POSITIVE_INFINITY;
+
     /**
      * square edge size parameter
      */
@@ -22,6 +30,26 @@ public class PointLight extends Light implements LightSource {
      */
     public static int softShadowsRays = 36;
 
+    /**
+     * The default sampler of the soft shadow rays - a jittered grid
+     */
+    private static final Sampler DEFAULT_SAMPLER = new StratifiedSampler();
+
+    /**
+     * The sample points of the probe rays in the light square - the corners and the center
+     */
+    private static final double[] PROBE_POINTS = { 0, 0, 1, 0, 0, 1, 1, 1, 0.5, 0.5 };
+
+    /**
+     * The sampler which distributes the soft shadow rays over the light square
+     */
+    private Sampler sampler = DEFAULT_SAMPLER;
+
+    /**
+     * The sample points buffer of each render thread, reused for every shaded point
+     */
+    private final ThreadLocal<double[]> samples = ThreadLocal.withInitial(() -> new double[0]);
+
 
     /*
     * Make LightSource abstract class, add the lengthOfTheSide, softShadowsRays variables
@@ -55,6 +83,17 @@ public class PointLight extends Light implements LightSource {
         return this;
     }
 
+    /**
+     * Set the sampler which distributes the `soft shadows` rays over the light square
+     *
+     * @param sampler the sampler, null for the default jittered grid
+     * @return the updated point light
+     */
+    public PointLight setSampler(Sampler sampler) {
+        this.sampler = sampler == null ? DEFAULT_SAMPLER : sampler;
+        return this;
+    }
+
 
 
     /**
@@ -77,6 +116,7 @@ public class PointLight extends Light implements LightSource {
      */
     public PointLight setKc(double kC) {
         this.kC = kC;
+        updateInfluenceRadius();
         return this;
     }
 
@@ -88,6 +128,7 @@ public class PointLight extends Light implements LightSource {
      */
     public PointLight setKl(double kL) {
         this.kL = kL;
+        updateInfluenceRadius();
         return this;
     }
 
@@ -99,11 +140,41 @@ public class PointLight extends Light implements LightSource {
      */
     public PointLight setKq(double kQ) {
         this.kQ = kQ;
+        updateInfluenceRadius();
+        return this;
+    }
+
+    /**
+     * The function sets the cutoff intensity - the intensity under which the light's contribution
+     * to a point is negligible, so the point is not lit by it at all.
+     *
+     * @param cutoff the new cutoff intensity, 0 for no cutoff
+     * @return the updated PointLight with the new updated value.
+     */
+    public PointLight setCutoff(double cutoff) {
+        if (cutoff < 0)
+            throw new IllegalArgumentException("The cutoff intensity must not be negative");
+        this.cutoff = cutoff;
+        updateInfluenceRadius();
         return this;
     }
     //endregion
 
     //region Getters
+    /**
+     * Returns the cutoff intensity of the light.
+     *
+     * @return the cutoff intensity, 0 if there is no cutoff
+     */
+    public double getCutoff() {
+        return cutoff;
+    }
+
+    @Override
+    public double getInfluenceRadius() {
+        return influenceRadius;
+    }
+
     /**
      * Retrieves the intensity of the light at a given point.
      *
@@ -136,39 +207,151 @@ public class PointLight extends Light implements LightSource {
     public double getDistance(Point point) {
         return position.distance(point);
     }
+
+    /**
+     * Returns the position of the light.
+     *
+     * @return the position of the light
+     */
+    public Point getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the constant attenuation coefficient.
+     *
+     * @return kC
+     */
+    double getKc() {
+        return kC;
+    }
+
+    /**
+     * Returns the linear attenuation coefficient.
+     *
+     * @return kL
+     */
+    double getKl() {
+        return kL;
+    }
+
+    /**
+     * Returns the quadratic attenuation coefficient.
+     *
+     * @return kQ
+     */
+    double getKq() {
+        return kQ;
+    }
     //endregion
 
     @Override
-    public List<Vector> getLBeam(Point p) {
+    public boolean canIlluminate(Point p) {
+        return influenceRadius == Double.POSITIVE_INFINITY
+                || position.distanceSquared(p) <= influenceRadius * influenceRadius;
+    }
+
+    /**
+     * Calculates the influence radius - the distance at which the strongest component of the
+     * attenuated intensity drops to the cutoff, i.e. the positive root of
+     * kQ*d^2 + kL*d + kC = intensity / cutoff.
+     */
+    private void updateInfluenceRadius() {
+        if (cutoff == 0) {
+            influenceRadius = Double.POSITIVE_INFINITY;
+            return;
+        }
+
+        double maxIntensity = getIntensity().difference(Color.BLACK); // the strongest component
+        double c = kC - maxIntensity / cutoff;
+        if (c >= 0)
+            influenceRadius = 0;
+        else if (kQ > 0)
+            influenceRadius = (-kL + Math.sqrt(kL * kL - 4 * kQ * c)) / (2 * kQ);
+        else if (kL > 0)
+            influenceRadius = -c / kL;
+        else
+            influenceRadius = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Gets the vectors from the given point to the four corners of the light square and to the
+     * light's position
+     *
+     * @param p the point
+     * @return the probe vectors
+     */
+    @Override
+    public List<Vector> getLProbes(Point p) {
         if (lengthOfTheSide == 0) return List.of(getL(p));
 
-        List<Vector> vectors = new LinkedList<>();
-        // help vectors
-        Vector v0, v1;
+        Vector[] probes = new Vector[PROBE_POINTS.length / 2];
+        fillBeam(p, PROBE_POINTS, probes.length, probes);
+        return List.of(probes);
+    }
+
+    @Override
+    public List<Vector> getLBeam(Point p) {
+        Vector[] beam = new Vector[getBeamSize()];
+        return List.of(Arrays.copyOf(beam, getLBeam(p, beam)));
+    }
+
+    @Override
+    public int getBeamSize() {
+        return lengthOfTheSide == 0 ? 1 : softShadowsRays;
+    }
+
+    @Override
+    public int getLBeam(Point p, Vector[] beam) {
+        if (lengthOfTheSide == 0) {
+            beam[0] = getL(p);
+            return 1;
+        }
 
-        // A variable that tells how many divide each side
-        double divided = Math.sqrt(softShadowsRays);
+        int count = softShadowsRays;
+        double[] points = samples.get();
+        if (points.length < 2 * count)
+            samples.set(points = new double[2 * count]);
 
-        // plane of the light
-        Plane plane = new Plane(position, getL(p));
+        sampler.generate(count, points);
+        fillBeam(p, points, count, beam);
+        return count;
+    }
+
+    /**
+     * Calculates the vectors from a point to sample points on the light square. The square is
+     * centered at the light's position and faces the point. Its orthonormal frame is built
+     * directly from the direction to the point (Duff et al., "Building an Orthonormal Basis,
+     * Revisited"), so no planes or intermediate vectors are created - only the vectors themselves.
+     *
+     * @param p      the point
+     * @param points the sample points in the unit square - u0, v0, u1, v1, ...
+     * @param count  the amount of sample points
+     * @param beam   the array for the vectors
+     */
+    private void fillBeam(Point p, double[] points, int count, Vector[] beam) {
+        double px = p.getX(), py = p.getY(), pz = p.getZ();
+        double cx = position.getX(), cy = position.getY(), cz = position.getZ();
 
-        // vectors of the plane
-        List<Vector> vectorsOfThePlane = plane.findVectorsOfPlane();
+        // the normal of the square - the direction from the light to the point
+        double wx = px - cx, wy = py - cy, wz = pz - cz;
+        double wLength = Math.sqrt(wx * wx + wy * wy + wz * wz);
+        wx /= wLength;
+        wy /= wLength;
+        wz /= wLength;
 
-        // Starting point of the square around the lighting
-        Point startPoint = position.add(vectorsOfThePlane.get(0).normalize().scale(-lengthOfTheSide / 2.0))
-                .add(vectorsOfThePlane.get(1).normalize().scale(-lengthOfTheSide / 2.0));
+        // the edges of the square
+        double sign = Math.copySign(1, wz), a = -1 / (sign + wz), b = wx * wy * a;
+        double ux = 1 + sign * wx * wx * a, uy = sign * b, uz = -sign * wx;
+        double vx = b, vy = sign + wy * wy * a, vz = -wy;
 
-        // A loop that runs as the number of vectors and in each of its runs it brings a vector around the lamp
-        for (double i = 0; i < lengthOfTheSide; i += lengthOfTheSide / divided) {
-            for (double j = 0; j < lengthOfTheSide; j += lengthOfTheSide / divided) {
-                v0 = vectorsOfThePlane.get(0).normalize()
-                        .scale(random(i, i + lengthOfTheSide / divided));
-                v1 = vectorsOfThePlane.get(1).normalize()
-                        .scale(random(j, j + lengthOfTheSide / divided));
-                vectors.add(p.subtract(startPoint.add(v0).add(v1)).normalize());
-            }
+        for (int k = 0; k < count; k++) {
+            double s = (points[2 * k] - 0.5) * lengthOfTheSide, t = (points[2 * k + 1] - 0.5) * lengthOfTheSide;
+            double dx = px - (cx + s * ux + t * vx);
+            double dy = py - (cy + s * uy + t * vy);
+            double dz = pz - (cz + s * uz + t * vz);
+            double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            beam[k] = new Vector(dx / length, dy / length, dz / length);
         }
-        return vectors;
     }
 }
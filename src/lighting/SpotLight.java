@@ -19,6 +19,20 @@ public class SpotLight extends PointLight {
         this.direction = direction.normalize();
     }
 
+    /**
+     * Checks if the light can contribute to the given point - the point must be inside the lobe
+     * of the spot, and the intensity at it must not be lower than the cutoff
+     *
+     * @param p the point
+     * @return false if the light's contribution to the point is negligible
+     */
+    @Override
+    public boolean canIlluminate(Point p) {
+        if (!super.canIlluminate(p) || alignZero(direction.dotProduct(getL(p))) <= 0)
+            return false;
+        return getCutoff() == 0 || getIntensity(p).difference(Color.BLACK) >= getCutoff();
+    }
+
     @Override
     public Color getIntensity(Point p) {
         double tmp = alignZero(direction.dotProduct(getL(p)));
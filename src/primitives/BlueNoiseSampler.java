@@ -0,0 +1,80 @@
+package primitives;
+
+import java.util.SplittableRandom;
+
+import static primitives.Util.random;
+
+/**
+ * Blue noise sampler - the points are taken from a precomputed blue noise set, whose points are
+ * far from each other without forming a regular pattern. The set is progressive - every prefix of
+ * it is also a blue noise set - so any amount of points up to {@link #MAX_POINTS} is taken from
+ * its beginning. The points are shifted by a random offset (wrapping around the square), so
+ * neighbouring pixels don't use the same pattern.
+ */
+public class BlueNoiseSampler implements Sampler {
+    /**
+     * The maximal amount of points of a sample set
+     */
+    public static final int MAX_POINTS = 1024;
+
+    /**
+     * The amount of candidates of each point of the precomputed set
+     */
+    private static final int CANDIDATES = 32;
+
+    /**
+     * The precomputed set - u0, v0, u1, v1, ...
+     */
+    private static final double[] POINTS = bestCandidateSet(MAX_POINTS);
+
+    /**
+     * @throws IllegalArgumentException if more than {@link #MAX_POINTS} points are requested
+     */
+    @Override
+    public void generate(int count, double[] points) {
+        if (count > MAX_POINTS)
+            throw new IllegalArgumentException("Blue noise sampler provides at most " + MAX_POINTS + " points");
+
+        double shiftU = random(0, 1), shiftV = random(0, 1);
+
+        for (int k = 0; k < count; k++) {
+            points[2 * k] = HaltonSampler.wrap(POINTS[2 * k] + shiftU);
+            points[2 * k + 1] = HaltonSampler.wrap(POINTS[2 * k + 1] + shiftV);
+        }
+    }
+
+    /**
+     * Builds a progressive blue noise set by Mitchell's best candidate algorithm - each point is
+     * the candidate which is the farthest from all the previous points. The distances wrap around
+     * the square, so the set can be shifted. The set is built with a fixed seed, so it is the same
+     * in every run.
+     *
+     * @param count the amount of points
+     * @return the coordinates of the points - u0, v0, u1, v1, ...
+     */
+    private static double[] bestCandidateSet(int count) {
+        SplittableRandom rnd = new SplittableRandom(0x5EED);
+        double[] points = new double[2 * count];
+        points[0] = rnd.nextDouble();
+        points[1] = rnd.nextDouble();
+        for (int k = 1; k < count; k++) {
+            double bestDistance = -1;
+            for (int c = 0; c < CANDIDATES; c++) {
+                double u = rnd.nextDouble(), v = rnd.nextDouble();
+                double distance = Double.POSITIVE_INFINITY;
+                for (int p = 0; p < k && distance > bestDistance; p++) {
+                    double du = Math.abs(points[2 * p] - u), dv = Math.abs(points[2 * p + 1] - v);
+                    du = Math.min(du, 1 - du);
+                    dv = Math.min(dv, 1 - dv);
+                    distance = Math.min(distance, du * du + dv * dv);
+                }
+                if (distance > bestDistance) {
+                    bestDistance = distance;
+                    points[2 * k] = u;
+                    points[2 * k + 1] = v;
+                }
+            }
+        }
+        return points;
+    }
+}
@@ -102,6 +102,15 @@ public class Color {
       return new Color(rgb.d1 / k.d1, rgb.d2 / k.d2, rgb.d3 / k.d3);
    }
 
+   /** Calculate the biggest difference between the components of this and another
+    * color
+    * @param  other the other color
+    * @return       the maximal absolute difference of the rgb components */
+   public double difference(Color other) {
+      return Math.max(Math.abs(rgb.d1 - other.rgb.d1),
+                      Math.max(Math.abs(rgb.d2 - other.rgb.d2), Math.abs(rgb.d3 - other.rgb.d3)));
+   }
+
    @Override
    public String toString() { return "rgb:" + rgb; }
 }
@@ -0,0 +1,45 @@
+package primitives;
+
+import static primitives.Util.random;
+
+/**
+ * Halton sampler - the points are the Halton sequence in bases 2 and 3. The whole set is shifted
+ * by a random offset (wrapping around the square), so neighbouring pixels don't use the same
+ * pattern.
+ */
+public class HaltonSampler implements Sampler {
+    @Override
+    public void generate(int count, double[] points) {
+        double shiftU = random(0, 1), shiftV = random(0, 1);
+
+        for (int k = 0; k < count; k++) {
+            // the sequence starts at 1 - the first point (0, 0) is on the corner
+            points[2 * k] = wrap(radicalInverse(k + 1, 2) + shiftU);
+            points[2 * k + 1] = wrap(radicalInverse(k + 1, 3) + shiftV);
+        }
+    }
+
+    /**
+     * Mirrors the digits of a number in a given base around the radix point.
+     *
+     * @param index the number
+     * @param base  the base
+     * @return the radical inverse of the number, in [0,1)
+     */
+    static double radicalInverse(int index, int base) {
+        double result = 0, fraction = 1d / base;
+        for (; index > 0; index /= base, fraction /= base)
+            result += index % base * fraction;
+        return result;
+    }
+
+    /**
+     * Wraps a coordinate in [0,2) into [0,1).
+     *
+     * @param value the coordinate
+     * @return the wrapped coordinate
+     */
+    static double wrap(double value) {
+        return value >= 1 ? value - 1 : value;
+    }
+}
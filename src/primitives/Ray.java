@@ -18,8 +18,16 @@ public class Ray {
     final Point p0;
     final Vector dir;
 
-    public Point getPoint(double t){
-        return p0.add(dir.scale(t));}
+    /**
+     * Returns the point on the ray at a given distance from its head.
+     * The point is calculated directly from the coordinates, without an intermediate vector.
+     *
+     * @param t the distance from the ray's head
+     * @return the point p0 + t * dir
+     */
+    public Point getPoint(double t) {
+        return new Point(p0.xyz.d1 + dir.xyz.d1 * t, p0.xyz.d2 + dir.xyz.d2 * t, p0.xyz.d3 + dir.xyz.d3 * t);
+    }
 
     /**
      * Constructs a new Ray object with the specified starting point and direction vector.
@@ -0,0 +1,33 @@
+package primitives;
+
+/**
+ * The Sampler interface represents a generator of sample points in the unit square.
+ * The points are used to distribute rays over an area - the pixel for anti aliasing or the
+ * light square for soft shadows. Samplers which spread the points evenly converge faster than
+ * pure random jitter, so fewer rays give the same image quality.<br/>
+ * The random part of a sampler is drawn from {@link Util#random(double, double)}, so the points
+ * of a pixel are reproducible for a given seed.
+ */
+public interface Sampler {
+    /**
+     * Generates sample points in the unit square [0,1) x [0,1).
+     *
+     * @param count the amount of points
+     * @return the coordinates of the points - u0, v0, u1, v1, ...
+     */
+    public default double[] generate(int count) {
+        double[] points = new double[2 * count];
+        generate(count, points);
+        return points;
+    }
+
+    /**
+     * Generates sample points in the unit square [0,1) x [0,1) into a given array, so an array can
+     * be reused for many sets of points.
+     *
+     * @param count  the amount of points
+     * @param points the array for the coordinates of the points - u0, v0, u1, v1, ...,
+     *               at least 2 * count long
+     */
+    public void generate(int count, double[] points);
+}
@@ -0,0 +1,74 @@
+package primitives;
+
+import static primitives.Util.random;
+
+/**
+ * Scrambled Sobol sampler - the points are the first two dimensions of the Sobol sequence,
+ * scrambled by a hash based nested uniform (Owen) scrambling with random seeds.
+ * The scrambling keeps the stratification of the sequence - every power of two points has one
+ * point in each elementary interval of the square - and decorrelates neighbouring pixels.
+ */
+public class SobolSampler implements Sampler {
+    @Override
+    public void generate(int count, double[] points) {
+        int seedU = randomSeed(), seedV = randomSeed();
+
+        for (int k = 0; k < count; k++) {
+            points[2 * k] = toUnit(scramble(Integer.reverse(k), seedU));
+            points[2 * k + 1] = toUnit(scramble(sobolSecondDimension(k), seedV));
+        }
+    }
+
+    /**
+     * Calculates the second dimension of the Sobol sequence (the first one is the bit reversed
+     * index). The direction numbers are of the primitive polynomial x + 1.
+     *
+     * @param index the index of the point
+     * @return the coordinate as a 32 bit binary fraction
+     */
+    static int sobolSecondDimension(int index) {
+        int result = 0;
+        for (int v = 1 << 31; index != 0; index >>>= 1, v ^= v >>> 1)
+            if ((index & 1) != 0)
+                result ^= v;
+        return result;
+    }
+
+    /**
+     * Scrambles a binary fraction by a nested uniform scrambling - every bit is flipped
+     * depending on the seed and on the bits above it. The hash is by Laine and Karras,
+     * with the constants of Burley.
+     *
+     * @param x    the binary fraction
+     * @param seed the seed of the scrambling
+     * @return the scrambled binary fraction
+     */
+    static int scramble(int x, int seed) {
+        x = Integer.reverse(x);
+        x += seed;
+        x ^= x * 0x6c50b47c;
+        x ^= x * 0xb82f1e52;
+        x ^= x * 0xc7afe638;
+        x ^= x * 0x8d22f6e6;
+        return Integer.reverse(x);
+    }
+
+    /**
+     * Converts a 32 bit binary fraction into a real number.
+     *
+     * @param x the binary fraction
+     * @return the number in [0,1)
+     */
+    private static double toUnit(int x) {
+        return Integer.toUnsignedLong(x) * 0x1p-32;
+    }
+
+    /**
+     * Draws a random seed for the scrambling.
+     *
+     * @return the seed
+     */
+    private static int randomSeed() {
+        return (int) (long) random(0, 0x1p32);
+    }
+}
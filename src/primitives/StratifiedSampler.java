@@ -0,0 +1,24 @@
+package primitives;
+
+import static primitives.Util.random;
+
+/**
+ * Stratified sampler - the unit square is divided into a grid of cells, and one point is placed
+ * randomly in each cell. When the amount of points is not a square, the rows have different amounts
+ * of cells - the leftover points add a cell to each of the first rows, so no cell is left empty.
+ */
+public class StratifiedSampler implements Sampler {
+    @Override
+    public void generate(int count, double[] points) {
+        int rows = (int) Math.sqrt(count);
+
+        int k = 0;
+        for (int row = 0; row < rows; row++) {
+            int cols = count / rows + (row < count % rows ? 1 : 0);
+            for (int col = 0; col < cols; col++, k++) {
+                points[2 * k] = (col + random(0, 1)) / cols;
+                points[2 * k + 1] = (row + random(0, 1)) / rows;
+            }
+        }
+    }
+}
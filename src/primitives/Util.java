@@ -1,5 +1,7 @@
 package primitives;
 
+import java.util.SplittableRandom;
+
 /**
  * Util class is used for some internal utilities, e.g. controlling accuracy
  * 
@@ -9,6 +11,9 @@ public abstract class Util {
 	// It is binary, equivalent to ~1/1,000,000,000,000 in decimal (12 digits)
 	private static final int ACCURACY = -40;
 
+	// Random generator of each thread - no contention between the threads
+	private static final ThreadLocal<SplittableRandom> RANDOM = ThreadLocal.withInitial(SplittableRandom::new);
+
 	/**
 	 * Empty private constructor to hide the public one
 	 */
@@ -59,14 +64,30 @@ public abstract class Util {
 	}
 
 	/**
-	 * Provide a real random number in range between min and max
+	 * Provide a real random number in range between min and max.<br/>
+	 * The number is drawn from the random generator of the current thread (see
+	 * {@link #setRandomSeed(long, long)})
 	 * 
 	 * @param min value (included)
 	 * @param max value (excluded)
 	 * @return the random value
 	 */
 	public static double random(double min, double max) {
-		return Math.random() * (max - min) + min;
+		return RANDOM.get().nextDouble() * (max - min) + min;
+	}
+
+	/**
+	 * Restarts the random generator of the current thread with a seed keyed by a
+	 * sample stream index (e.g. the index of the rendered pixel). The numbers
+	 * provided by {@link #random(double, double)} afterwards depend only on the
+	 * seed and the index, and not on the thread or on the work done by other
+	 * threads
+	 * 
+	 * @param seed  the global seed
+	 * @param index the index of the sample stream
+	 */
+	public static void setRandomSeed(long seed, long index) {
+		RANDOM.set(new SplittableRandom(seed ^ index * 0x9E3779B97F4A7C15L));
 	}
 
 }
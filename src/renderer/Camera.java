@@ -6,11 +6,12 @@ import javax.swing.*;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.MissingResourceException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.IntStream;
 
 import static primitives.Util.*;
 
@@ -27,7 +28,14 @@ public class Camera {
     private RayTracerBase rayTracer;
     private boolean useAntiAliasing = false;
     private int aliasRays = 9;       // cast 81 rays in real
+    private Sampler sampler = null;  // null - jittered grid
+    private boolean useAdaptiveSuperSampling = false;
+    private int adaptiveMaxDepth = 3;
+    private double adaptiveThreshold = 4;
     private boolean threadedRendering = false;
+    private int tileSize = 16;
+    private int threadsCount = 0;   // 0 - as many as the available processors
+    private long seed = 0;
     private PixelManager pixelManager;
 
 
@@ -184,6 +192,69 @@ public class Camera {
         return this;
     }
 
+    /**
+     *  The function sets the sampler which distributes the anti aliasing rays over a pixel.
+     *
+     * @param sampler - The new sampler, null for the default jittered grid
+     * @return the updated camera with the new updated values.
+     */
+    public Camera setSampler(Sampler sampler) {
+        this.sampler = sampler;
+        return this;
+    }
+
+    /**
+     *  The function sets the enabling option for the adaptive super sampling of the camera.
+     *  When it is enabled (together with the anti aliasing), a pixel is sampled at its corners and
+     *  center, and it is subdivided only where the colors of the samples differ.
+     *
+     * @param useAdaptiveSuperSampling - The new use adaptive super sampling value
+     * @return the updated camera with the new updated values.
+     */
+    public Camera setUseAdaptiveSuperSampling(boolean useAdaptiveSuperSampling) {
+        this.useAdaptiveSuperSampling = useAdaptiveSuperSampling;
+        return this;
+    }
+
+    /**
+     *  The function sets the maximal depth of the subdivision of the adaptive super sampling.
+     *
+     * @param maxDepth - The new maximal depth, 0 to sample only the corners and the center of a pixel
+     * @return the updated camera with the new updated values.
+     */
+    public Camera setAdaptiveMaxDepth(int maxDepth) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("The maximal depth must not be negative!");
+        adaptiveMaxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     *  The function sets the color difference which makes the adaptive super sampling subdivide a pixel.
+     *
+     * @param threshold - The new maximal difference of a color component between similar samples
+     * @return the updated camera with the new updated values.
+     */
+    public Camera setAdaptiveThreshold(double threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("The threshold must not be negative!");
+        adaptiveThreshold = threshold;
+        return this;
+    }
+
+    /**
+     *  The function sets the seed of the random sampling (anti aliasing, soft shadows).
+     *  Every pixel draws its random numbers from its own generator keyed by the seed and the pixel,
+     *  so an image rendered with the same seed is identical regardless of the threads.
+     *
+     * @param seed - The new seed
+     * @return the updated camera with the new updated values.
+     */
+    public Camera setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
     /**
      *  The function sets the enabling option for the threaded rendering of the camera.
      *
@@ -194,6 +265,32 @@ public class Camera {
         this.threadedRendering = threadedRendering;
         return this;
     }
+
+    /**
+     *  The function sets the size of the square tiles which the threads render.
+     *
+     * @param tileSize - The new width and height of a tile in pixels
+     * @return the updated camera with the new updated values.
+     */
+    public Camera setTileSize(int tileSize) {
+        if (tileSize < 1)
+            throw new IllegalArgumentException("The tile size must be greater then 0!");
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     *  The function sets the number of threads of the threaded rendering.
+     *
+     * @param threadsCount - The new number of threads, 0 for the number of the available processors
+     * @return the updated camera with the new updated values.
+     */
+    public Camera setThreadsCount(int threadsCount) {
+        if (threadsCount < 0)
+            throw new IllegalArgumentException("The number of threads must not be negative!");
+        this.threadsCount = threadsCount;
+        return this;
+    }
     //endregion
 
     //region Rendering methods
@@ -210,29 +307,122 @@ public class Camera {
         int nX = imageWriter.getNx();
         int nY = imageWriter.getNy();
 
-        pixelManager = new PixelManager(nY, nX, 100);
+        pixelManager = new PixelManager(nY, nX, 100, tileSize);
         BiConsumer<Integer, Integer> writePixel = (j, i) -> {
+            setRandomSeed(seed, (long) i * nX + j);
             Color color = calcAveragePixelColor(nX, nY, j, i);
             imageWriter.writePixel(j, i, color);
             pixelManager.pixelDone();
         };
 
-        if (threadedRendering) {
-            IntStream.range(0, nY).parallel().forEach(i ->
-                IntStream.range(0, nX).parallel().forEach(j -> {
-                    writePixel.accept(j, i);
-                }));
-        }
-        else {
-            for (int i = 0; i < nY; i++) {
-                for (int j = 0; j < nX; j++) {
-                    writePixel.accept(j, i);
+        int batchSize = useAntiAliasing ? 1 : rayTracer.getBatchSize();
+        // the progress reporter is stopped also if a worker fails
+        try {
+            if (batchSize > 1)
+                renderBatches(nX, nY, batchSize);
+            else if (threadedRendering) {
+                // every worker takes the next tile until there are no more tiles, so a worker which
+                // finishes a cheap tile immediately continues with another one
+                runWorkers(() -> {
+                    PixelManager.Tile tile;
+                    while ((tile = pixelManager.nextTile()) != null)
+                        for (int i = tile.row(); i < tile.row() + tile.height(); i++)
+                            for (int j = tile.col(); j < tile.col() + tile.width(); j++)
+                                writePixel.accept(j, i);
+                });
+            }
+            else {
+                for (int i = 0; i < nY; i++) {
+                    for (int j = 0; j < nX; j++) {
+                        writePixel.accept(j, i);
+                    }
                 }
             }
+        } finally {
+            pixelManager.done();
         }
         return this;
     }
 
+    /**
+     * Renders the image in batches of primary rays, which the ray tracer traces together.
+     * In threaded rendering every worker batches the pixels of the tiles it takes.
+     *
+     * @param nX        the number of pixels in the x-axis direction of the view plane
+     * @param nY        the number of pixels in the y-axis direction of the view plane
+     * @param batchSize the amount of rays in a batch
+     */
+    private void renderBatches(int nX, int nY, int batchSize) {
+        Runnable worker = () -> {
+            int[] pixels = new int[batchSize];
+            Ray[] rays = new Ray[batchSize];
+            Color[] colors = new Color[batchSize];
+            PixelManager.Tile tile = threadedRendering ? pixelManager.nextTile()
+                    : new PixelManager.Tile(0, 0, nX, nY);
+            while (tile != null) {
+                int count = 0;
+                for (int i = tile.row(); i < tile.row() + tile.height(); i++)
+                    for (int j = tile.col(); j < tile.col() + tile.width(); j++) {
+                        pixels[count++] = i * nX + j;
+                        if (count == batchSize) {
+                            traceBatch(nX, nY, pixels, rays, colors, count);
+                            count = 0;
+                        }
+                    }
+                // a batch never spans two tiles
+                traceBatch(nX, nY, pixels, rays, colors, count);
+                tile = threadedRendering ? pixelManager.nextTile() : null;
+            }
+        };
+
+        if (threadedRendering)
+            runWorkers(worker);
+        else
+            worker.run();
+    }
+
+    /**
+     * Traces a batch of primary rays and writes their colors into the image.
+     *
+     * @param nX     the number of pixels in the x-axis direction of the view plane
+     * @param nY     the number of pixels in the y-axis direction of the view plane
+     * @param pixels the indices (row by row) of the pixels of the batch
+     * @param rays   the buffer of the primary rays
+     * @param colors the buffer of the colors
+     * @param count  the amount of pixels in the batch
+     */
+    private void traceBatch(int nX, int nY, int[] pixels, Ray[] rays, Color[] colors, int count) {
+        if (count == 0)
+            return;
+        for (int k = 0; k < count; k++)
+            rays[k] = constructRay(nX, nY, pixels[k] % nX, pixels[k] / nX);
+        // every ray is shaded with the random numbers of its pixel, as if it was traced alone
+        rayTracer.traceRays(rays, seed, pixels, colors, count);
+        for (int k = 0; k < count; k++) {
+            imageWriter.writePixel(pixels[k] % nX, pixels[k] / nX, colors[k]);
+            pixelManager.pixelDone();
+        }
+    }
+
+    /**
+     * Runs a rendering worker in each of the render threads, and waits for all of them to finish.
+     *
+     * @param worker the rendering worker
+     */
+    private void runWorkers(Runnable worker) {
+        int threads = threadsCount == 0 ? Runtime.getRuntime().availableProcessors() : threadsCount;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<ForkJoinTask<?>> tasks = new LinkedList<>();
+            for (int t = 0; t < threads; t++)
+                tasks.add(pool.submit(worker));
+            for (ForkJoinTask<?> task : tasks)
+                task.join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     /**
      * Print a grid on the image
      *
@@ -275,20 +465,42 @@ public class Camera {
      * @return a Ray object for the given pixel
      */
     public Ray constructRay(int nX, int nY, int j, int i) {
+        Vector vIJ = pixelCenter(nX, nY, j, i).subtract(p0);
+        return new Ray(p0, vIJ);
+    }
+
+    /**
+     * Calculates the center point of a pixel in the view plane.
+     *
+     * @param nX the number of pixels in the x-axis direction of the view plane
+     * @param nY the number of pixels in the y-axis direction of the view plane
+     * @param j the index of the pixel on the x-axis
+     * @param i the index of the pixel on the y-axis
+     * @return the center of the pixel
+     */
+    private Point pixelCenter(int nX, int nY, int j, int i) {
         Point pc = p0.add(vTo.scale(distance));
         double rY = height / nY;
         double rX = width / nX;
-        Point pIJ = pc;
-        double jX = (j - (nX - 1d) / 2) * rX;
-        if (!Util.isZero(jX)) {
-            pIJ = pIJ.add(vRight.scale(jX));
+        return movePoint(pc, (j - (nX - 1d) / 2) * rX, -(i - (nY - 1d) / 2) * rY);
+    }
+
+    /**
+     * Moves a point on the view plane by the given distances to the right and up.
+     *
+     * @param point the point on the view plane
+     * @param x the distance to move along vRight
+     * @param y the distance to move along vUp
+     * @return the moved point
+     */
+    private Point movePoint(Point point, double x, double y) {
+        if (!Util.isZero(x)) {
+            point = point.add(vRight.scale(x));
         }
-        double iY = -(i - (nY - 1d) / 2) * rY;
-        if (!Util.isZero(iY)) {
-            pIJ = pIJ.add(vUp.scale(iY));
+        if (!Util.isZero(y)) {
+            point = point.add(vUp.scale(y));
         }
-        Vector vIJ = pIJ.subtract(p0);
-        return new Ray(p0, vIJ);
+        return point;
     }
 
     /**
@@ -306,6 +518,9 @@ public class Camera {
         if (!useAntiAliasing)
             return List.of(constructRay(nX, nY, j, i));
 
+        if (sampler != null)
+            return constructSampledRays(nX, nY, j, i);
+
         // Choosing the biggest scalar to scale the vectors.
         double rY = height / (2 * nY * aliasRays * 0.05 * distance),
                rX = width / (2 * nX * aliasRays * 0.05 * distance);
@@ -328,6 +543,26 @@ public class Camera {
         return rays;
     }
 
+    /**
+     * Constructs the anti aliasing rays of a pixel through the points of the camera's sampler.
+     *
+     * @param nX The total number of pixels along the x-axis.
+     * @param nY The total number of pixels along the y-axis.
+     * @param j The x-coordinate of the current pixel.
+     * @param i The y-coordinate of the current pixel.
+     * @return A list of aliasRays * aliasRays rays through the pixel.
+     */
+    private List<Ray> constructSampledRays(int nX, int nY, int j, int i) {
+        Point center = pixelCenter(nX, nY, j, i);
+        double rX = width / nX, rY = height / nY;
+        double[] samples = sampler.generate(aliasRays * aliasRays);
+
+        List<Ray> rays = new LinkedList<>();
+        for (int k = 0; k < samples.length; k += 2)
+            rays.add(new Ray(p0, movePoint(center, (samples[k] - 0.5) * rX, (0.5 - samples[k + 1]) * rY).subtract(p0)));
+        return rays;
+    }
+
     /**
      * Calculates the average pixel color for a given pixel coordinate by tracing multiple rays
      * and averaging the resulting colors.
@@ -339,13 +574,95 @@ public class Camera {
      * @return The average Color calculated from the traced rays.
      */
     private Color calcAveragePixelColor(int nX, int nY, int j, int i) {
+        if (useAntiAliasing && useAdaptiveSuperSampling)
+            return calcAdaptivePixelColor(nX, nY, j, i);
+
         List<Ray> rays = constructRays(nX, nY, j, i);
         Color color = Color.BLACK;
-        for (Ray ray : rays)
-            color = color.add(rayTracer.traceRay(ray));
+        if (rays.size() > 1 && rayTracer.getBatchSize() > 1) {
+            // the rays of the pixel are traced together, drawing the random numbers of the pixel in
+            // the same order as one by one
+            Color[] colors = new Color[rays.size()];
+            rayTracer.traceRays(rays.toArray(new Ray[0]), colors, colors.length);
+            for (Color rayColor : colors)
+                color = color.add(rayColor);
+        }
+        else
+            for (Ray ray : rays)
+                color = color.add(rayTracer.traceRay(ray));
         return color.reduce(rays.size());
     }
 
+    /**
+     * Calculates the color of a pixel by adaptive super sampling - the pixel is sampled at its
+     * corners, and is subdivided recursively only where the samples have different colors.
+     *
+     * @param nX The total number of pixels along the x-axis.
+     * @param nY The total number of pixels along the y-axis.
+     * @param j The x-coordinate of the current pixel.
+     * @param i The y-coordinate of the current pixel.
+     * @return The average Color of the pixel.
+     */
+    private Color calcAdaptivePixelColor(int nX, int nY, int j, int i) {
+        Point center = pixelCenter(nX, nY, j, i);
+        double halfX = width / nX / 2, halfY = height / nY / 2;
+        return calcAdaptiveColor(center, halfX, halfY,
+                traceViewPlanePoint(movePoint(center, -halfX, halfY)),
+                traceViewPlanePoint(movePoint(center, halfX, halfY)),
+                traceViewPlanePoint(movePoint(center, -halfX, -halfY)),
+                traceViewPlanePoint(movePoint(center, halfX, -halfY)),
+                adaptiveMaxDepth);
+    }
+
+    /**
+     * Calculates the average color of a rectangle of the view plane. The center of the rectangle is
+     * sampled, and if the colors of the corners differ from it the rectangle is divided into four
+     * quarters which are calculated recursively. The colors of the corners are passed down, so every
+     * sample point is traced once.
+     *
+     * @param center the center of the rectangle
+     * @param halfX half of the width of the rectangle
+     * @param halfY half of the height of the rectangle
+     * @param topLeft the color at the top left corner
+     * @param topRight the color at the top right corner
+     * @param bottomLeft the color at the bottom left corner
+     * @param bottomRight the color at the bottom right corner
+     * @param depth the remaining depth of subdivision
+     * @return the average color of the rectangle
+     */
+    private Color calcAdaptiveColor(Point center, double halfX, double halfY,
+                                    Color topLeft, Color topRight, Color bottomLeft, Color bottomRight, int depth) {
+        Color centerColor = traceViewPlanePoint(center);
+        if (depth == 0
+                || centerColor.difference(topLeft) <= adaptiveThreshold
+                && centerColor.difference(topRight) <= adaptiveThreshold
+                && centerColor.difference(bottomLeft) <= adaptiveThreshold
+                && centerColor.difference(bottomRight) <= adaptiveThreshold)
+            return centerColor.add(topLeft, topRight, bottomLeft, bottomRight).reduce(5);
+
+        Color top = traceViewPlanePoint(movePoint(center, 0, halfY));
+        Color bottom = traceViewPlanePoint(movePoint(center, 0, -halfY));
+        Color left = traceViewPlanePoint(movePoint(center, -halfX, 0));
+        Color right = traceViewPlanePoint(movePoint(center, halfX, 0));
+
+        double qX = halfX / 2, qY = halfY / 2;
+        return calcAdaptiveColor(movePoint(center, -qX, qY), qX, qY, topLeft, top, left, centerColor, depth - 1)
+                .add(calcAdaptiveColor(movePoint(center, qX, qY), qX, qY, top, topRight, centerColor, right, depth - 1),
+                        calcAdaptiveColor(movePoint(center, -qX, -qY), qX, qY, left, centerColor, bottomLeft, bottom, depth - 1),
+                        calcAdaptiveColor(movePoint(center, qX, -qY), qX, qY, centerColor, right, bottom, bottomRight, depth - 1))
+                .reduce(4);
+    }
+
+    /**
+     * Traces the ray from the camera through a point of the view plane.
+     *
+     * @param point the point on the view plane
+     * @return The color of the ray
+     */
+    private Color traceViewPlanePoint(Point point) {
+        return rayTracer.traceRay(new Ray(p0, point.subtract(p0)));
+    }
+
     /**
      * The function creates a ray from the camera to a pixel and finds the ray's color.
      *
@@ -1,5 +1,10 @@
 package renderer;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 /** PixelManager is a helper class. It is used for multi-threading in the
  * renderer and
  * for follow up its progress.<br/>
@@ -12,6 +17,11 @@ class PixelManager {
    record Pixel(int col, int row) {
    }
 
+   /** Immutable class for object containing allocated tile - a rectangle of pixels
+    * (with its first column and row numbers and its size) */
+   record Tile(int col, int row, int width, int height) {
+   }
+
    /** Maximum rows of pixels */
    private int                 maxRows       = 0;
    /** Maximum columns of pixels */
@@ -19,14 +29,13 @@ class PixelManager {
    /** Total amount of pixels in the generated image */
    private long                totalPixels   = 0l;
 
-   /** Currently processed row of pixels */
-   private volatile int        cRow          = 0;
-   /** Currently processed column of pixels */
-   private volatile int        cCol          = -1;
-   /** Amount of pixels that have been processed */
-   private volatile long       pixels        = 0l;
+   /** Index (row by row) of the next pixel to be allocated */
+   private final AtomicLong    cPixel        = new AtomicLong();
+   /** Amount of pixels that have been processed - a striped counter, so the
+    * threads don't contend on a single memory location */
+   private final LongAdder     pixels        = new LongAdder();
    /** Last printed progress update percentage */
-   private volatile int        lastPrinted   = 0;
+   private int                 lastPrinted   = 0;
 
    /** Flag of debug printing of progress percentage */
    private boolean             print         = false;
@@ -34,12 +43,17 @@ class PixelManager {
    private long                printInterval = 100l;
    /** Printing format */
    private static final String PRINT_FORMAT  = "%5.1f%%\r";
-   /** Mutual exclusion object for synchronizing next pixel allocation between
-    * threads */
-   private Object              mutexNext     = new Object();
-   /** Mutual exclusion object for printing progress percentage in console window
-    * by different threads */
-   private Object              mutexPixels   = new Object();
+   /** Period in milliseconds of the progress reporter checks */
+   private static final long   REPORT_PERIOD = 200l;
+   /** Thread which prints the progress percentage, null if printing is not
+    * required */
+   private Thread              reporter      = null;
+
+   /** Tiles of the image, ordered along a Z-order curve so consecutive tiles are
+    * neighbours */
+   private Tile[]              tiles         = new Tile[0];
+   /** Index of the next tile to be allocated */
+   private final AtomicInteger cTile         = new AtomicInteger();
 
    /** Initialize pixel manager data for multi-threading
     * @param maxRows  the amount of pixel rows
@@ -51,44 +65,108 @@ class PixelManager {
       this.maxCols  = maxCols;
       totalPixels   = (long) maxRows * maxCols;
       printInterval = (int) (interval * 10);
-      if (print = printInterval != 0) System.out.printf(PRINT_FORMAT, 0d);
+      if (print = printInterval != 0) {
+         System.out.printf(PRINT_FORMAT, 0d);
+         reporter = new Thread(this::report, "PixelManager progress reporter");
+         reporter.setDaemon(true);
+         reporter.start();
+      }
    }
 
-   /** Function for thread-safe manipulating of main follow up Pixel object - this
-    * function is critical section for all the threads, and the pixel manager data
-    * is the shared data of this critical section.<br/>
-    * The function provides next available pixel number each call.
-    * @return true if next pixel is allocated, false if there are no more pixels */
-   Pixel nextPixel() {
-      synchronized (mutexNext) {
-         if (cRow == maxRows) return null;
+   /** Initialize pixel manager data for multi-threading by tiles
+    * @param maxRows  the amount of pixel rows
+    * @param maxCols  the amount of pixel columns
+    * @param interval print time interval in seconds, 0 if printing is not
+    *                 required
+    * @param tileSize the width and height of a tile in pixels */
+   PixelManager(int maxRows, int maxCols, double interval, int tileSize) {
+      this(maxRows, maxCols, interval);
+      int tileRows = (maxRows + tileSize - 1) / tileSize;
+      int tileCols = (maxCols + tileSize - 1) / tileSize;
 
-         ++cCol;
-         if (cCol < maxCols)
-            return new Pixel(cRow, cCol);
+      // sort the tiles by the Morton code of their position in the grid of tiles, so
+      // the tiles rendered at the same time by the threads are close to each other
+      long[] keys = new long[tileRows * tileCols];
+      for (int row = 0; row < tileRows; ++row)
+         for (int col = 0; col < tileCols; ++col)
+            keys[row * tileCols + col] = mortonCode(col, row) << 32 | (row * tileCols + col);
+      Arrays.sort(keys);
 
-         cCol = 0;
-         ++cRow;
-         if (cRow < maxRows)
-            return new Pixel(cRow, cCol);
+      tiles = new Tile[keys.length];
+      for (int i = 0; i < keys.length; ++i) {
+         int index = (int) keys[i];
+         int col   = index % tileCols * tileSize;
+         int row   = index / tileCols * tileSize;
+         tiles[i] = new Tile(col, row, Math.min(tileSize, maxCols - col), Math.min(tileSize, maxRows - row));
       }
-      return null;
    }
 
-   /** Finish pixel processing by updating and printing of progress percentage */
+   /** Interleaves the bits of tile grid coordinates into a Morton (Z-order) code
+    * @param  col the column of the tile
+    * @param  row the row of the tile
+    * @return     the Morton code */
+   private static long mortonCode(int col, int row) {
+      long code = 0;
+      for (int bit = 0; bit < 16; ++bit)
+         code |= ((long) (col >> bit & 1) << 2 * bit) | ((long) (row >> bit & 1) << 2 * bit + 1);
+      return code;
+   }
+
+   /** Function for thread-safe allocation of tiles - the function provides the
+    * next tile to be rendered each call.
+    * @return the next tile, or null if there are no more tiles */
+   Tile nextTile() {
+      int index = cTile.getAndIncrement();
+      return index < tiles.length ? tiles[index] : null;
+   }
+
+   /** Function for thread-safe allocation of pixels - the function provides
+    * next available pixel number each call.
+    * @return the next pixel, or null if there are no more pixels */
+   Pixel nextPixel() {
+      long index = cPixel.getAndIncrement();
+      return index < totalPixels ? new Pixel((int) (index % maxCols), (int) (index / maxCols)) : null;
+   }
+
+   /** Finish pixel processing by updating the progress counter */
    void pixelDone() {
-      boolean flag       = false;
-      int     percentage = 0;
-      synchronized (mutexPixels) {
-         ++pixels;
-         if (print) {
-            percentage = (int) (1000l * pixels / totalPixels);
-            if (percentage - lastPrinted >= printInterval) {
-               lastPrinted = percentage;
-               flag        = true;
-            }
+      pixels.increment();
+   }
+
+   /** Finish the rendering - stops the progress reporter and prints the final
+    * progress percentage */
+   void done() {
+      if (reporter == null) return;
+      reporter.interrupt();
+      try {
+         reporter.join();
+      } catch (InterruptedException ignored) {
+         Thread.currentThread().interrupt();
+      }
+      reporter = null;
+      printProgress(true);
+   }
+
+   /** The body of the progress reporter thread - wakes up periodically and prints
+    * the progress percentage until all the pixels are done or it is stopped */
+   private void report() {
+      try {
+         while (pixels.sum() < totalPixels) {
+            Thread.sleep(REPORT_PERIOD);
+            printProgress(false);
          }
-         if (flag) System.out.printf(PRINT_FORMAT, percentage / 10d);
+      } catch (InterruptedException ignored) {
+      }
+   }
+
+   /** Prints the progress percentage if it has advanced by the printing interval
+    * since the last print
+    * @param force print the percentage if it has advanced at all */
+   private synchronized void printProgress(boolean force) {
+      int percentage = (int) (1000l * pixels.sum() / totalPixels);
+      if (percentage - lastPrinted >= printInterval || force && percentage > lastPrinted) {
+         lastPrinted = percentage;
+         System.out.printf(PRINT_FORMAT, percentage / 10d);
       }
    }
 }
@@ -3,11 +3,20 @@ package renderer;
 import primitives.*;
 import scene.Scene;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.setRandomSeed;
+
 /**
  * An abstract class that provides a base for ray tracing algorithms.
  */
 public abstract class RayTracerBase {
 
+    protected static final Double3 INITIAL_K = new Double3(1.0);
+
+    protected static final int MAX_CALC_COLOR_LEVEL = 10;
+
+    protected static final double MIN_CALC_COLOR_K = 0.001;
+
     /**
      * The scene to be rendered by the ray tracer.
      */
@@ -30,4 +39,107 @@ public abstract class RayTracerBase {
      * @return the color of the ray after it interacts with objects in the scene
      */
     public abstract Color traceRay(Ray ray);
+
+    /**
+     * Calculates the colors of a batch of rays. The random numbers are drawn from the current
+     * random generator of the thread, in the order of the rays (e.g. the anti aliasing rays of a
+     * pixel).
+     * The default implementation traces the rays one by one.
+     *
+     * @param rays   the rays to trace
+     * @param colors the array to fill with the colors of the rays
+     * @param count  the amount of rays in the batch
+     */
+    public void traceRays(Ray[] rays, Color[] colors, int count) {
+        for (int i = 0; i < count; i++)
+            colors[i] = traceRay(rays[i]);
+    }
+
+    /**
+     * Calculates the colors of a batch of rays, each of them with its own random numbers - the
+     * random generator of the thread is restarted by {@link Util#setRandomSeed(long, long)} with the
+     * index of the ray before the ray is shaded, so the color of a ray doesn't depend on the other
+     * rays of the batch.
+     * The default implementation traces the rays one by one.
+     *
+     * @param rays    the rays to trace
+     * @param seed    the global seed
+     * @param indices the index of the sample stream of each ray (e.g. the index of its pixel)
+     * @param colors  the array to fill with the colors of the rays
+     * @param count   the amount of rays in the batch
+     */
+    public void traceRays(Ray[] rays, long seed, int[] indices, Color[] colors, int count) {
+        for (int i = 0; i < count; i++) {
+            setRandomSeed(seed, indices[i]);
+            colors[i] = traceRay(rays[i]);
+        }
+    }
+
+    /**
+     * Returns the preferred amount of rays in a batch. The camera traces its primary rays one by one
+     * unless the tracer prefers batches of more than one ray.
+     *
+     * @return the preferred batch size, 1 by default
+     */
+    public int getBatchSize() {
+        return 1;
+    }
+
+    //region Shared calculations
+    /**
+     * Calculates the diffusive light of a light source on a point.
+     *
+     * @param kD             the diffusive attenuation of the material
+     * @param l              the direction from the light source to the point
+     * @param n              the normal at the point
+     * @param lightIntensity the intensity of the light at the point
+     * @return the diffusive light
+     */
+    protected Color calcDiffusive(Double3 kD, Vector l, Vector n, Color lightIntensity) {
+        return lightIntensity.scale(kD.scale(Math.abs(l.dotProduct(n))));
+    }
+
+    /**
+     * Calculates the specular light of a light source on a point.
+     *
+     * @param kS             the specular attenuation of the material
+     * @param l              the direction from the light source to the point
+     * @param n              the normal at the point
+     * @param v              the direction of the viewing ray
+     * @param nShininess     the shininess of the material
+     * @param lightIntensity the intensity of the light at the point
+     * @return the specular light
+     */
+    protected Color calcSpecular(Double3 kS, Vector l, Vector n, Vector v, int nShininess, Color lightIntensity) {
+        Vector r = l.subtract(n.scale(2 * (l.dotProduct(n))));
+        double minusVR = -v.dotProduct(r);
+        return alignZero(minusVR) <= 0 ? Color.BLACK //
+                : lightIntensity.scale(kS.scale(Math.pow(minusVR, nShininess)));
+    }
+
+    /**
+     * The function calculates the reflected ray.
+     *
+     * @param p The source of the ray
+     * @param v The direction of the ray
+     * @param n The normal vector to the geometry
+     * @return The reflected ray
+     */
+    protected Ray constructReflectedRay(Point p, Vector v, Vector n) {
+        Vector reflectedVector = v.subtract(n.scale(2 * v.dotProduct(n)));
+        return new Ray(p, reflectedVector, n);
+    }
+
+    /**
+     * The function calculates the refracted ray.
+     *
+     * @param p The source of the ray
+     * @param v The direction of the ray
+     * @param n The normal vector to the geometry
+     * @return The refracted ray
+     */
+    protected Ray constructRefractedRay(Point p, Vector v, Vector n) {
+        return new Ray(p, v, n);
+    }
+    //endregion
 }
@@ -4,29 +4,163 @@ import primitives.*;
 import lighting.*;
 import scene.Scene;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import geometries.Intersectable.GeoPoint;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import geometries.Geometry;
+import geometries.Intersectable;
+import geometries.Intersectable.HitRecord;
+import geometries.RayPacket;
 import static primitives.Util.*;
 import static lighting.PointLight.softShadowsRays;
 
 /**
  * A basic implementation of a ray tracer that extends the abstract RayTracerBase class.
+ * The primary rays may be intersected with the scene in packets of neighbouring pixels (see
+ * {@link #setPacketSize(int)}), while the secondary and the shadow rays are traced one by one.
  */
 public class RayTracerBasic extends RayTracerBase {
 
-    private static final Double3 INITIAL_K = new Double3(1.0);
+    private boolean useSoftShadow = false;
 
-    private static final int MAX_CALC_COLOR_LEVEL = 10;
+    private boolean useAdaptiveSoftShadow = false;
 
-    private static final double MIN_CALC_COLOR_K = 0.001;
+    private boolean useOccluderCache = false;
 
-    private boolean useSoftShadow = false;
+    private LightTree lightTree = null;
+
+    private int packetSize = 1;
+
+    /**
+     * The packet buffer of each render thread, reused for every packet of primary rays
+     */
+    private final ThreadLocal<RayPacket> packets = ThreadLocal.withInitial(RayPacket::new);
+
+    /**
+     * The list of the lights selected by the light tree for the shaded point, in each render thread
+     */
+    private final ThreadLocal<List<LightSource>> selectedLights = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * The last opaque geometry which blocked a shadow ray of each light, in each render thread
+     */
+    private final ThreadLocal<Map<LightSource, Intersectable>> lastOccluders =
+            ThreadLocal.withInitial(IdentityHashMap::new);
+
+    /**
+     * The record of the opaque geometry which blocked a shadow ray, in each render thread
+     */
+    private final ThreadLocal<HitRecord> blockers = ThreadLocal.withInitial(HitRecord::new);
+
+    /**
+     * The amount of shadow rays which were blocked by the cached occluder
+     */
+    private final LongAdder occluderCacheHits = new LongAdder();
+
+    /**
+     * The amount of shadow rays which were tested against the cached occluder without being blocked by it
+     */
+    private final LongAdder occluderCacheMisses = new LongAdder();
+
+    /**
+     * The closest hit records of each render thread, one for each recursion level - the record of a
+     * level is shaded while the rays of the next levels are traced, and it is reused for every ray
+     * the thread traces at that level
+     */
+    private final ThreadLocal<HitRecord[]> hitRecords = ThreadLocal.withInitial(() -> {
+        HitRecord[] records = new HitRecord[MAX_CALC_COLOR_LEVEL + 1];
+        for (int i = 0; i < records.length; i++)
+            records[i] = new HitRecord();
+        return records;
+    });
+
+    /**
+     * The light beam buffer of each render thread, reused for every shaded point
+     */
+    private final ThreadLocal<Vector[]> beam = ThreadLocal.withInitial(() -> new Vector[1]);
 
     public RayTracerBasic setUseSoftShadow(boolean useSoftShadow) {
         this.useSoftShadow = useSoftShadow;
         return this;
     }
 
+    /**
+     * Sets the enabling option for the adaptive soft shadow. When it is enabled (together with the
+     * soft shadow), a few probe rays are traced towards the edges of each light first, and the whole
+     * beam is traced only if the probes are blocked differently - in a penumbra.
+     *
+     * @param useAdaptiveSoftShadow the new use adaptive soft shadow value
+     * @return the updated ray tracer
+     */
+    public RayTracerBasic setUseAdaptiveSoftShadow(boolean useAdaptiveSoftShadow) {
+        this.useAdaptiveSoftShadow = useAdaptiveSoftShadow;
+        return this;
+    }
+
+    /**
+     * Sets the amount of primary rays which are intersected with the scene together. When it is more
+     * than one, the camera traces its primary rays in batches of that size (the pixels of a batch are
+     * neighbours in a tile), and the closest hits of each batch are found as a single packet. With
+     * anti aliasing, the rays of each pixel are traced in packets.
+     *
+     * @param packetSize the amount of rays in a packet, 1 to intersect the rays one by one
+     * @return the updated ray tracer
+     * @throws IllegalArgumentException if the packet size isn't between 1 and {@link RayPacket#MAX_SIZE}
+     */
+    public RayTracerBasic setPacketSize(int packetSize) {
+        if (packetSize < 1 || packetSize > RayPacket.MAX_SIZE)
+            throw new IllegalArgumentException("The packet size must be between 1 and " + RayPacket.MAX_SIZE);
+        this.packetSize = packetSize;
+        return this;
+    }
+
+    /**
+     * Sets the enabling option for the occluder cache. When it is enabled, the last opaque geometry
+     * which blocked a shadow ray of a light is tested first by the next shadow ray of that light in
+     * the same thread, before the whole scene is searched.
+     *
+     * @param useOccluderCache the new use occluder cache value
+     * @return the updated ray tracer
+     */
+    public RayTracerBasic setUseOccluderCache(boolean useOccluderCache) {
+        this.useOccluderCache = useOccluderCache;
+        return this;
+    }
+
+    /**
+     * Sets the light tree which selects the important lights for each shaded point. Without a light
+     * tree all the lights of the scene are evaluated at each point.
+     *
+     * @param lightTree the light tree built over the lights of the scene, null to evaluate all the lights
+     * @return the updated ray tracer
+     */
+    public RayTracerBasic setLightTree(LightTree lightTree) {
+        this.lightTree = lightTree;
+        return this;
+    }
+
+    /**
+     * Returns the amount of shadow rays which were blocked by the cached occluder.
+     *
+     * @return the amount of the occluder cache hits
+     */
+    public long getOccluderCacheHits() {
+        return occluderCacheHits.sum();
+    }
+
+    /**
+     * Returns the amount of shadow rays which were not blocked by the cached occluder, including the
+     * rays of lights without a cached occluder - so the hits and the misses together are all the
+     * lookups of the cache.
+     *
+     * @return the amount of the occluder cache misses
+     */
+    public long getOccluderCacheMisses() {
+        return occluderCacheMisses.sum();
+    }
+
     /**
      * Constructs a new RayTracerBasic object with the specified scene.
      *
@@ -40,57 +174,94 @@ public class RayTracerBasic extends RayTracerBase {
     /**
      * Calculates the color at a specific point.
      *
-     * @param closestPoint The point to find the color
+     * @param closestHit The hit record of the point to find the color
      * @param ray The light ray
      * @return The color at the point
      */
-    private Color calcColor(GeoPoint closestPoint, Ray ray) {
-        return calcColor(closestPoint, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K)
+    private Color calcColor(HitRecord closestHit, Ray ray) {
+        return calcColor(closestHit, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K)
                 .add(scene.ambientLight.getIntensity());
     }
 
     /**
-     * Calculates the color at a specific point.
+     * Calculates the color at a specific point. The point and the normal are calculated once into
+     * the hit record, and shared by the local and the global effects.
      *
-     * @param intersection The intersection point to find the color
+     * @param hit The hit record of the intersection point to find the color
      * @param ray The light ray
      * @param level Level of recursion
      * @param k The transparency (%) * the K effect
      * @return The color of the intersection point
      */
-    private Color calcColor(GeoPoint intersection, Ray ray, int level, Double3 k) {
-        Color color = intersection.geometry.getEmission()
-                .add(calcLocalEffects(intersection, ray, k));
+    private Color calcColor(HitRecord hit, Ray ray, int level, Double3 k) {
+        Point point = hit.getPoint(ray);
+        Vector n = hit.getNormal(ray);
+        Color color = hit.geometry.getEmission()
+                .add(calcLocalEffects(hit.geometry, point, n, ray, k));
         return level == 1 ? color
-                : color.add(calcGlobalEffects(intersection, ray, level, k));
+                : color.add(calcGlobalEffects(hit.geometry, point, n, ray, level, k));
     }
     //endregion
 
     //region Calculate Effects Methods
-    private Color calcLocalEffects(GeoPoint geoPoint, Ray ray, Double3 k) {
+    /**
+     * Calculates the local effects (diffusive and specular) of the lights on a point.
+     *
+     * @param geometry the intersected geometry
+     * @param point the point of intersection
+     * @param n the normal of the geometry at the point
+     * @param ray the ray that intersected with the geometry
+     * @param k the transparency (%) * the K effect of the ray
+     * @return the color of the local effects
+     */
+    protected Color calcLocalEffects(Geometry geometry, Point point, Vector n, Ray ray, Double3 k) {
         Color color = Color.BLACK;
         Vector v = ray.getDir();
-        Vector n = geoPoint.geometry.getNormal(geoPoint.point);
 
-        Double3 kd = geoPoint.geometry.getMaterial().kD;
-        Double3 ks = geoPoint.geometry.getMaterial().kS;
-        int nShininess = geoPoint.geometry.getMaterial().nShininess;
+        Double3 kd = geometry.getMaterial().kD;
+        Double3 ks = geometry.getMaterial().kS;
+        int nShininess = geometry.getMaterial().nShininess;
 
         double nv = n.dotProduct(v);
         if (nv == 0)
             return color;
 
-        for (LightSource lightSource : scene.lights) {
-            List<Vector> vectors = (!useSoftShadow) ? List.of(lightSource.getL(geoPoint.point))
-                    : lightSource.getLBeam(geoPoint.point);
+        List<LightSource> lights = lightTree == null ? scene.lights
+                : lightTree.select(point, selectedLights.get());
+        for (LightSource lightSource : lights) {
+            if (!lightSource.canIlluminate(point))
+                continue;
+
+            if (useSoftShadow && useAdaptiveSoftShadow) {
+                Double3 ktr = probeTransparency(point, lightSource, n, nv);
+                if (ktr != null) { // the probes agree - fully lit or fully shadowed
+                    Vector l = lightSource.getL(point);
+                    if (n.dotProduct(l) * nv > 0 && !ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) {
+                        Color lightIntensity = lightSource.getIntensity(point).scale(ktr);
+                        color = color.add(calcDiffusive(kd, l, n, lightIntensity),
+                                calcSpecular(ks, l, n, v, nShininess, lightIntensity));
+                    }
+                    continue;
+                }
+            }
+
+            Vector[] vectors = beamBuffer(useSoftShadow ? lightSource.getBeamSize() : 1);
+            int reduceBy;
+            if (useSoftShadow)
+                reduceBy = lightSource.getLBeam(point, vectors);
+            else {
+                vectors[0] = lightSource.getL(point);
+                reduceBy = 1;
+            }
 
             Color tempColor = Color.BLACK;
-            for(Vector l : vectors) {
+            for (int i = 0; i < reduceBy; i++) {
+                Vector l = vectors[i];
                 double nl = n.dotProduct(l);
                 if (nl * nv > 0) { // sign(nl) == sing(nv)
-                    Double3 ktr = transparency(geoPoint, lightSource, l, n);
+                    Double3 ktr = transparency(point, lightSource, l, n);
                     if(!ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) {
-                        Color lightIntensity = lightSource.getIntensity(geoPoint.point)
+                        Color lightIntensity = lightSource.getIntensity(point)
                                 .scale(ktr);
 
                         tempColor = tempColor.add(calcDiffusive(kd, l, n, lightIntensity),
@@ -98,7 +269,6 @@ public class RayTracerBasic extends RayTracerBase {
                     }
                 }
             }
-            int reduceBy = vectors.size();
             color = color.add((!useSoftShadow) ? tempColor :
                     tempColor.reduce(reduceBy > 0 ? reduceBy : 1));
         }
@@ -109,22 +279,23 @@ public class RayTracerBasic extends RayTracerBase {
      * Calculates the global effects of reflection and refraction on the color of the given
      * intersection point.
      *
-     * @param intersection the geometric point of intersection
+     * @param geometry the intersected geometry
+     * @param point the point of intersection
+     * @param n the normal of the geometry at the point
      * @param ray the ray that intersected with the geometry
      * @param level the recursion level for ray tracing
      * @param k the coefficient for global effects
      * @return the resulting color after considering global effects
      */
-    private Color calcGlobalEffects(GeoPoint intersection, Ray ray, int level, Double3 k) {
+    private Color calcGlobalEffects(Geometry geometry, Point point, Vector n, Ray ray, int level, Double3 k) {
         Color color = Color.BLACK;
-        Double3 kr = intersection.geometry.getMaterial().kR;
-        Double3 kt = intersection.geometry.getMaterial().kT;
+        Double3 kr = geometry.getMaterial().kR;
+        Double3 kt = geometry.getMaterial().kT;
 
         Vector v = ray.getDir();
-        Vector n = intersection.geometry.getNormal(intersection.point);
 
-        Ray reflectedRay = constructReflectedRay(intersection.point, v, n);
-        Ray refractedRay = constructRefractedRay(intersection.point, v, n);
+        Ray reflectedRay = constructReflectedRay(point, v, n);
+        Ray refractedRay = constructRefractedRay(point, v, n);
         color = color.add(calcGlobalEffect(reflectedRay, level, k, kr))
                      .add(calcGlobalEffect(refractedRay, level, k, kt));
 
@@ -136,116 +307,111 @@ public class RayTracerBasic extends RayTracerBase {
         if (kkx.lowerThan(MIN_CALC_COLOR_K))
             return Color.BLACK;
 
-        GeoPoint gp = findClosestIntersection(ray);
-        if (gp == null)
+        HitRecord hit = findClosestIntersection(ray, level - 1);
+        if (hit == null)
             return scene.background.scale(kx);
 
-        return isZero(gp.geometry.getNormal(gp.point).dotProduct(ray.getDir()))
+        // the normal is kept in the hit record, calcColor doesn't calculate it again
+        return isZero(hit.getNormal(ray).dotProduct(ray.getDir()))
                 ? Color.BLACK
-                : calcColor(gp, ray, level - 1, kkx).scale(kx);
+                : calcColor(hit, ray, level - 1, kkx).scale(kx);
     }
 
 
     /**
-     * Checks if a given point on a geometry is unshaded by a specific light source.
+     * Checks if the last occluder of a light in the current thread blocks a shadow ray, and
+     * updates the hit-rate counters.
      *
-     * @param light the light source to check
-     * @param l the vector representing the direction from the light source to the point
-     * @param n the normal vector at the point on the geometry
-     * @param geoPoint the geometric point on the surface of the geometry
-     * @return {@code true} if the point is unshaded by the light source, {@code false} otherwise
+     * @param light the light source
+     * @param lightRay the shadow ray towards the light source
+     * @param distance the distance to the light source
+     * @return {@code true} if the cached occluder blocks the ray, {@code false} otherwise
      */
-    private boolean unshaded(LightSource light, Vector l, Vector n, GeoPoint geoPoint) {
-        Vector lightDirection = l.scale(-1);
-        Ray lightRay = new Ray(geoPoint.point, lightDirection, n);
-
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay);
-        if (intersections != null && !intersections.isEmpty()) {
-            for(GeoPoint intersection : intersections)
-                if (intersection.point.distance(geoPoint.point) < light.getDistance(geoPoint.point) &&
-                    intersection.geometry.getMaterial().kT == Double3.ZERO)
-                    return false;
+    private boolean cachedOccluderBlocks(LightSource light, Ray lightRay, double distance) {
+        Intersectable occluder = lastOccluders.get().get(light);
+        if (occluder != null && occluder.isOccluded(lightRay, distance)) {
+            occluderCacheHits.increment();
+            return true;
         }
-
-        return true;
+        occluderCacheMisses.increment();
+        return false;
     }
 
     /**
-     * The function calculates the transparency light to the point.
+     * Returns the light beam buffer of the current thread, grown to the required size.
      *
-     * @param geoPoint The point
-     * @param ls The light source
-     * @param l The vector from the light source to the point
-     * @param n The normal vector at the point
-     * @return The transparency light
+     * @param size the required size of the buffer
+     * @return the buffer
      */
-    private Double3 transparency(GeoPoint geoPoint, LightSource ls, Vector l, Vector n) {
-        Vector lightDirection = l.scale(-1);
-        Ray lightRay = new Ray(geoPoint.point, lightDirection, n);
-
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay);
-        if (intersections == null || intersections.isEmpty())
-            return Double3.ONE;
-
-        Double3 ktr = Double3.ONE;
-        for (GeoPoint intersection : intersections)
-            if (intersection.point.distance(geoPoint.point) < ls.getDistance(geoPoint.point)) {
-                ktr = ktr.product(intersection.geometry.getMaterial().kT);
-                if (ktr.lowerThan(MIN_CALC_COLOR_K))
-                    return Double3.ZERO;
-            }
-        return ktr;
-    }
-
-    private Color calcDiffusive(Double3 kD, Vector l, Vector n, Color lightIntensity) {
-        return lightIntensity.scale(kD.scale(Math.abs(l.dotProduct(n))));
+    private Vector[] beamBuffer(int size) {
+        Vector[] vectors = beam.get();
+        if (vectors.length < size)
+            beam.set(vectors = new Vector[size]);
+        return vectors;
     }
 
-    private Color calcSpecular(Double3 kS, Vector l, Vector n, Vector v, int nShininess, Color lightIntensity) {
-        Vector r = l.subtract(n.scale(2 * (l.dotProduct(n))));
-        double minusVR = -v.dotProduct(r);
-        return alignZero(minusVR) <= 0 ? Color.BLACK //
-                : lightIntensity.scale(kS.scale(Math.pow(minusVR, nShininess)));
-    }
-    //endregion
-
-    //region Construct rays
     /**
-     * The function calculates the reflected ray.
+     * Traces the probe rays of a light source from a point, and checks if all of them pass the
+     * same amount of light.
      *
-     * @param p The source of the ray
-     * @param v The direction of the ray
-     * @param n The normal vector to the geometry
-     * @return The reflected ray
+     * @param point The point
+     * @param ls The light source
+     * @param n The normal vector at the point
+     * @param nv The dot product of the normal and the direction of the viewing ray
+     * @return the common transparency of the probes, or null if the probes disagree
      */
-    private Ray constructReflectedRay(Point p, Vector v, Vector n) {
-        Vector reflectedVector = v.subtract(n.scale(2 * v.dotProduct(n)));
-        return new Ray(p, reflectedVector, n);
+    private Double3 probeTransparency(Point point, LightSource ls, Vector n, double nv) {
+        Double3 common = null;
+        for (Vector l : ls.getLProbes(point)) {
+            Double3 ktr = n.dotProduct(l) * nv > 0 ? transparency(point, ls, l, n) : Double3.ZERO;
+            if (common == null)
+                common = ktr;
+            else if (!common.equals(ktr))
+                return null;
+        }
+        return common;
     }
 
     /**
-     * The function calculates the refracted ray.
+     * The function calculates the transparency light to the point.
      *
-     * @param p The source of the ray
-     * @param v The direction of the ray
-     * @param n The normal vector to the geometry
-     * @return The refracted ray
+     * @param point The point
+     * @param ls The light source
+     * @param l The vector from the light source to the point
+     * @param n The normal vector at the point
+     * @return The transparency light
      */
-    private Ray constructRefractedRay(Point p, Vector v, Vector n) {
-        return new Ray(p, v, n);
+    private Double3 transparency(Point point, LightSource ls, Vector l, Vector n) {
+        Vector lightDirection = l.scale(-1);
+        Ray lightRay = new Ray(point, lightDirection, n);
+        double distance = ls.getDistance(point);
+
+        if (!useOccluderCache)
+            return scene.geometries.transmittance(lightRay, distance, MIN_CALC_COLOR_K);
+
+        if (cachedOccluderBlocks(ls, lightRay, distance))
+            return Double3.ZERO;
+        // the same search reports the opaque geometry which blocked the ray (if there is one)
+        HitRecord blocker = blockers.get().reset();
+        Double3 ktr = scene.geometries.transmittance(lightRay, distance, MIN_CALC_COLOR_K, blocker);
+        if (blocker.geometry != null)
+            lastOccluders.get().put(ls, blocker.geometry);
+        return ktr;
     }
-    //endregion
 
+    //endregion
 
     /**
      * The function finds the closes point among the intersection points to the ray's source.
+     * The hit record of the recursion level is reused, so no GeoPoint is allocated for the hit.
      *
      * @param ray The ray
-     * @return The closes point to the ray's source
+     * @param level The recursion level of the ray
+     * @return The hit record of the closes point to the ray's source, or null if there is none
      */
-    private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
-        return intersections == null ? null : ray.findClosestGeoPoint(intersections);
+    protected HitRecord findClosestIntersection(Ray ray, int level) {
+        HitRecord hit = hitRecords.get()[level];
+        return scene.geometries.findClosestHit(ray, hit) ? hit : null;
     }
 
     /**
@@ -256,9 +422,55 @@ public class RayTracerBasic extends RayTracerBase {
      */
     @Override
     public Color traceRay(Ray ray) {
-        GeoPoint closestPoint = findClosestIntersection(ray);
+        HitRecord closestHit = findClosestIntersection(ray, MAX_CALC_COLOR_LEVEL);
+
+        return closestHit == null ? scene.background
+                                  : calcColor(closestHit, ray);
+    }
 
-        return closestPoint == null ? scene.background
-                                    : calcColor(closestPoint, ray);
+    @Override
+    public int getBatchSize() {
+        return packetSize;
+    }
+
+    @Override
+    public void traceRays(Ray[] rays, Color[] colors, int count) {
+        if (packetSize == 1)
+            super.traceRays(rays, colors, count);
+        else
+            tracePackets(rays, 0, null, colors, count);
+    }
+
+    @Override
+    public void traceRays(Ray[] rays, long seed, int[] indices, Color[] colors, int count) {
+        if (packetSize == 1)
+            super.traceRays(rays, seed, indices, colors, count);
+        else
+            tracePackets(rays, seed, indices, colors, count);
+    }
+
+    /**
+     * Traces a batch of rays in packets - the closest hits of each packet are found together, and
+     * then the hits are shaded one by one.
+     *
+     * @param rays    the rays to trace
+     * @param seed    the global seed
+     * @param indices the index of the sample stream of each ray, {@code null} to keep drawing from the
+     *                current random generator of the thread
+     * @param colors  the array to fill with the colors of the rays
+     * @param count   the amount of rays in the batch
+     */
+    private void tracePackets(Ray[] rays, long seed, int[] indices, Color[] colors, int count) {
+        RayPacket packet = packets.get();
+        HitRecord hit = hitRecords.get()[MAX_CALC_COLOR_LEVEL];
+        for (int i = 0; i < count; i += packetSize) {
+            int size = Math.min(packetSize, count - i);
+            scene.geometries.findClosestHits(packet.load(rays, i, size));
+            for (int k = 0; k < size; k++) {
+                if (indices != null)
+                    setRandomSeed(seed, indices[i + k]);
+                colors[i + k] = packet.store(k, hit) ? calcColor(hit, rays[i + k]) : scene.background;
+            }
+        }
     }
 }
@@ -0,0 +1,122 @@
+package renderer;
+
+import primitives.*;
+import scene.Scene;
+
+import java.util.ArrayDeque;
+import geometries.Intersectable.HitRecord;
+import static primitives.Util.*;
+
+/**
+ * A ray tracer which traces the reflected and refracted rays iteratively instead of recursively.
+ * The secondary rays are kept in a work queue together with their accumulated K effect, and the
+ * color of each hit is weighted by it - the K effect of a ray is the product of the reflection and
+ * transparency coefficients along its path, so it is the same weight the recursion applies level by
+ * level. The call stack doesn't grow with the recursion level, and the amount of secondary rays of a
+ * traced ray can be capped. The rays are traced level by level, so a cap drops the weakest (deepest)
+ * rays first.
+ */
+public class RayTracerIterative extends RayTracerBasic {
+    /**
+     * A secondary ray waiting to be traced
+     *
+     * @param ray   the ray
+     * @param level the recursion level of the ray
+     * @param k     the accumulated K effect of the ray
+     */
+    private record Work(Ray ray, int level, Double3 k) {
+    }
+
+    /**
+     * The work queue of each render thread, reused for every traced ray
+     */
+    private final ThreadLocal<ArrayDeque<Work>> queue = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * The maximal amount of secondary rays of a traced ray, 0 for no limit
+     */
+    private int maxRays = 0;
+
+    /**
+     * Constructs a new RayTracerIterative object with the specified scene.
+     *
+     * @param scene the scene to be rendered by the ray tracer
+     */
+    public RayTracerIterative(Scene scene) {
+        super(scene);
+    }
+
+    /**
+     * Sets the maximal amount of secondary (reflected and refracted) rays of a traced ray.
+     *
+     * @param maxRays the maximal amount of secondary rays, 0 for no limit
+     * @return the updated ray tracer
+     * @throws IllegalArgumentException if the amount is negative
+     */
+    public RayTracerIterative setMaxRays(int maxRays) {
+        if (maxRays < 0)
+            throw new IllegalArgumentException("The maximal amount of rays must not be negative");
+        this.maxRays = maxRays;
+        return this;
+    }
+
+    @Override
+    public Color traceRay(Ray ray) {
+        HitRecord hit = findClosestIntersection(ray, MAX_CALC_COLOR_LEVEL);
+        if (hit == null)
+            return scene.background;
+
+        ArrayDeque<Work> work = queue.get();
+        work.clear();
+        Color color = shade(hit, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K, work);
+        for (int traced = 0; !work.isEmpty() && (maxRays == 0 || traced < maxRays); traced++) {
+            Work w = work.poll();
+            hit = findClosestIntersection(w.ray, w.level);
+            if (hit == null)
+                color = color.add(scene.background.scale(w.k));
+            else if (!isZero(hit.getNormal(w.ray).dotProduct(w.ray.getDir())))
+                color = color.add(shade(hit, w.ray, w.level, w.k, work));
+        }
+        work.clear();
+        return color.add(scene.ambientLight.getIntensity());
+    }
+
+    /**
+     * Calculates the weighted color of the emission and the local effects at a hit, and queues its
+     * reflected and refracted rays.
+     *
+     * @param hit   the hit record of the intersection point
+     * @param ray   the ray that intersected with the geometry
+     * @param level the recursion level of the ray
+     * @param k     the accumulated K effect of the ray
+     * @param work  the work queue
+     * @return the color of the hit, weighted by the K effect
+     */
+    private Color shade(HitRecord hit, Ray ray, int level, Double3 k, ArrayDeque<Work> work) {
+        Point point = hit.getPoint(ray);
+        Vector n = hit.getNormal(ray);
+        Color color = hit.geometry.getEmission()
+                .add(calcLocalEffects(hit.geometry, point, n, ray, k)).scale(k);
+
+        if (level > 1) {
+            Material material = hit.geometry.getMaterial();
+            Vector v = ray.getDir();
+            queue(work, constructReflectedRay(point, v, n), level, k.product(material.kR));
+            queue(work, constructRefractedRay(point, v, n), level, k.product(material.kT));
+        }
+        return color;
+    }
+
+    /**
+     * Queues a secondary ray, unless its K effect is too weak to be seen.
+     *
+     * @param work  the work queue
+     * @param ray   the secondary ray
+     * @param level the recursion level of the ray's source
+     * @param kkx   the accumulated K effect of the secondary ray
+     */
+    private static void queue(ArrayDeque<Work> work, Ray ray, int level, Double3 kkx) {
+        if (!kkx.lowerThan(MIN_CALC_COLOR_K))
+            work.add(new Work(ray, level - 1, kkx));
+    }
+}
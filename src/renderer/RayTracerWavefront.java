@@ -0,0 +1,375 @@
+package renderer;
+
+import lighting.LightSource;
+import primitives.*;
+import scene.Scene;
+
+import java.util.Arrays;
+import geometries.Intersectable.HitRecord;
+import geometries.RayPacket;
+import static primitives.Util.isZero;
+
+/**
+ * An experimental wavefront ray tracer - instead of following each ray to the end of its recursion,
+ * it traces a whole batch of rays stage by stage:
+ * <ol>
+ *     <li>closest hit - all the rays of the wave are intersected with the scene, in packets of
+ *     neighbouring rays</li>
+ *     <li>shading - the emission of the hits (or the background of the misses) is added, and a
+ *     shadow ray is generated towards each light which may illuminate a hit</li>
+ *     <li>shadow rays - all the shadow rays are traced, and the lights they reach are added</li>
+ *     <li>secondary rays - the reflected and refracted rays of the hits form the next wave</li>
+ * </ol>
+ * The primary rays are generated by the camera in batches of {@link #getBatchSize()} rays.
+ * Each ray of a wave carries the index of its primary ray and its accumulated K effect, which is the
+ * weight of its color in the color of the primary ray. The batches are kept in arrays which are
+ * reused by each render thread. Only hard shadows are supported.
+ */
+public class RayTracerWavefront extends RayTracerBase {
+
+    /**
+     * A wave of rays - the rays of a single recursion level of a batch
+     */
+    private static class Wave {
+        Ray[] rays = new Ray[0];
+        /**
+         * The index of the primary ray of each ray
+         */
+        int[] primaries = new int[0];
+        /**
+         * The accumulated K effect of each ray
+         */
+        Double3[] k = new Double3[0];
+        HitRecord[] hits = new HitRecord[0];
+        boolean[] found = new boolean[0];
+        int size = 0;
+
+        /**
+         * Adds a ray to the wave.
+         *
+         * @param ray     the ray
+         * @param primary the index of its primary ray
+         * @param k       its accumulated K effect
+         */
+        void add(Ray ray, int primary, Double3 k) {
+            if (size == rays.length) {
+                int capacity = Math.max(16, 2 * size);
+                rays = Arrays.copyOf(rays, capacity);
+                primaries = Arrays.copyOf(primaries, capacity);
+                this.k = Arrays.copyOf(this.k, capacity);
+                hits = Arrays.copyOf(hits, capacity);
+                found = Arrays.copyOf(found, capacity);
+                for (int i = size; i < capacity; i++)
+                    hits[i] = new HitRecord();
+            }
+            rays[size] = ray;
+            primaries[size] = primary;
+            this.k[size] = k;
+            size++;
+        }
+    }
+
+    /**
+     * A batch of shadow rays
+     */
+    private static class Shadows {
+        Ray[] rays = new Ray[0];
+        double[] distances = new double[0];
+        /**
+         * The index of the primary ray of each shadow ray
+         */
+        int[] primaries = new int[0];
+        /**
+         * The accumulated K effect of the shaded ray of each shadow ray
+         */
+        Double3[] k = new Double3[0];
+        /**
+         * The diffusive and specular light which each shadow ray brings if it isn't blocked
+         */
+        Color[] light = new Color[0];
+        int size = 0;
+
+        /**
+         * Adds a shadow ray to the batch.
+         *
+         * @param ray      the shadow ray
+         * @param distance the distance to the light source
+         * @param primary  the index of the primary ray
+         * @param k        the accumulated K effect of the shaded ray
+         * @param light    the light which the shadow ray brings if it isn't blocked
+         */
+        void add(Ray ray, double distance, int primary, Double3 k, Color light) {
+            if (size == rays.length) {
+                int capacity = Math.max(16, 2 * size);
+                rays = Arrays.copyOf(rays, capacity);
+                distances = Arrays.copyOf(distances, capacity);
+                primaries = Arrays.copyOf(primaries, capacity);
+                this.k = Arrays.copyOf(this.k, capacity);
+                this.light = Arrays.copyOf(this.light, capacity);
+            }
+            rays[size] = ray;
+            distances[size] = distance;
+            primaries[size] = primary;
+            this.k[size] = k;
+            this.light[size] = light;
+            size++;
+        }
+    }
+
+    /**
+     * The batches of a render thread
+     */
+    private static class Batch {
+        Wave wave = new Wave();
+        Wave next = new Wave();
+        Shadows shadows = new Shadows();
+        RayPacket packet = new RayPacket();
+        boolean[] hit = new boolean[0];
+    }
+
+    /**
+     * The batches of each render thread, reused for every traced batch
+     */
+    private final ThreadLocal<Batch> batches = ThreadLocal.withInitial(Batch::new);
+
+    private int batchSize = 4096;
+
+    private int packetSize = RayPacket.MAX_SIZE;
+
+    /**
+     * Constructs a new RayTracerWavefront object with the specified scene.
+     *
+     * @param scene the scene to be rendered by the ray tracer
+     */
+    public RayTracerWavefront(Scene scene) {
+        super(scene);
+    }
+
+    /**
+     * Sets the amount of primary rays which the camera traces together.
+     *
+     * @param batchSize the amount of rays in a batch
+     * @return the updated ray tracer
+     * @throws IllegalArgumentException if the batch size isn't positive
+     */
+    public RayTracerWavefront setBatchSize(int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("The batch size must be positive");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the amount of rays which are intersected with the scene together in the closest hit
+     * stage. The rays of a wave are packed in their order, so the primary rays of a packet are of
+     * neighbouring pixels.
+     *
+     * @param packetSize the amount of rays in a packet, 1 to intersect the rays one by one
+     * @return the updated ray tracer
+     * @throws IllegalArgumentException if the packet size isn't between 1 and {@link RayPacket#MAX_SIZE}
+     */
+    public RayTracerWavefront setPacketSize(int packetSize) {
+        if (packetSize < 1 || packetSize > RayPacket.MAX_SIZE)
+            throw new IllegalArgumentException("The packet size must be between 1 and " + RayPacket.MAX_SIZE);
+        this.packetSize = packetSize;
+        return this;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public Color traceRay(Ray ray) {
+        Color[] colors = new Color[1];
+        traceRays(new Ray[] { ray }, colors, 1);
+        return colors[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     * The wavefront tracer draws no random numbers, so the indices are ignored.
+     */
+    @Override
+    public void traceRays(Ray[] rays, long seed, int[] indices, Color[] colors, int count) {
+        traceRays(rays, colors, count);
+    }
+
+    @Override
+    public void traceRays(Ray[] rays, Color[] colors, int count) {
+        Batch batch = batches.get();
+        Wave wave = batch.wave;
+        wave.size = 0;
+        for (int i = 0; i < count; i++) {
+            colors[i] = Color.BLACK;
+            wave.add(rays[i], i, INITIAL_K);
+        }
+
+        for (int level = MAX_CALC_COLOR_LEVEL; wave.size > 0; level--) {
+            findClosestHits(wave, batch.packet);
+            if (level == MAX_CALC_COLOR_LEVEL)
+                markPrimaryHits(batch, wave, count);
+            shade(wave, level, colors, batch.shadows);
+            traceShadows(batch.shadows, colors);
+
+            batch.next.size = 0;
+            if (level > 1)
+                constructSecondaryRays(wave, batch.next);
+            batch.wave = batch.next;
+            batch.next = wave;
+            wave = batch.wave;
+        }
+
+        // the ambient light is added to the primary rays which hit the scene
+        Color ambient = scene.ambientLight.getIntensity();
+        for (int i = 0; i < count; i++)
+            colors[i] = batch.hit[i] ? colors[i].add(ambient) : scene.background;
+    }
+
+    //region Stages
+    /**
+     * The closest hit stage - intersects all the rays of a wave with the scene.
+     *
+     * @param wave   the wave
+     * @param packet the packet buffer
+     */
+    private void findClosestHits(Wave wave, RayPacket packet) {
+        if (packetSize == 1) {
+            for (int i = 0; i < wave.size; i++)
+                wave.found[i] = scene.geometries.findClosestHit(wave.rays[i], wave.hits[i]);
+            return;
+        }
+
+        for (int i = 0; i < wave.size; i += packetSize) {
+            int count = Math.min(packetSize, wave.size - i);
+            scene.geometries.findClosestHits(packet.load(wave.rays, i, count));
+            for (int k = 0; k < count; k++)
+                wave.found[i + k] = packet.store(k, wave.hits[i + k]);
+        }
+    }
+
+    /**
+     * Marks the primary rays which hit the scene.
+     *
+     * @param batch the batch
+     * @param wave  the wave of the primary rays
+     * @param count the amount of primary rays
+     */
+    private static void markPrimaryHits(Batch batch, Wave wave, int count) {
+        if (batch.hit.length < count)
+            batch.hit = new boolean[count];
+        System.arraycopy(wave.found, 0, batch.hit, 0, count);
+    }
+
+    /**
+     * The shading stage - adds the emission of the hits and the background of the secondary rays
+     * which miss the scene, and generates the shadow rays of the hits.
+     *
+     * @param wave    the wave
+     * @param level   the recursion level of the wave
+     * @param colors  the colors of the primary rays
+     * @param shadows the batch to fill with the shadow rays
+     */
+    private void shade(Wave wave, int level, Color[] colors, Shadows shadows) {
+        shadows.size = 0;
+        for (int i = 0; i < wave.size; i++) {
+            Ray ray = wave.rays[i];
+            int primary = wave.primaries[i];
+            Double3 k = wave.k[i];
+            if (!wave.found[i]) {
+                if (level < MAX_CALC_COLOR_LEVEL)
+                    colors[primary] = colors[primary].add(scene.background.scale(k));
+                continue;
+            }
+
+            HitRecord hit = wave.hits[i];
+            Vector v = ray.getDir();
+            double nv = hit.getNormal(ray).dotProduct(v);
+            if (level < MAX_CALC_COLOR_LEVEL && isZero(nv)) {
+                wave.found[i] = false; // a grazing secondary ray adds nothing and isn't continued
+                continue;
+            }
+
+            colors[primary] = colors[primary].add(hit.geometry.getEmission().scale(k));
+            if (nv != 0)
+                constructShadowRays(hit, ray, nv, primary, k, shadows);
+        }
+    }
+
+    /**
+     * Generates the shadow rays of a hit towards the lights which may illuminate it from the side
+     * of the viewer.
+     *
+     * @param hit     the hit record
+     * @param ray     the ray of the hit
+     * @param nv      the dot product of the normal and the direction of the ray
+     * @param primary the index of the primary ray
+     * @param k       the accumulated K effect of the ray
+     * @param shadows the batch of the shadow rays
+     */
+    private void constructShadowRays(HitRecord hit, Ray ray, double nv, int primary, Double3 k, Shadows shadows) {
+        Point point = hit.getPoint(ray);
+        Vector n = hit.getNormal(ray);
+        Vector v = ray.getDir();
+        Material material = hit.geometry.getMaterial();
+
+        for (LightSource light : scene.lights) {
+            if (!light.canIlluminate(point))
+                continue;
+            Vector l = light.getL(point);
+            double nl = n.dotProduct(l);
+            if (nl * nv > 0) { // sign(nl) == sign(nv)
+                Color intensity = light.getIntensity(point);
+                Color local = calcDiffusive(material.kD, l, n, intensity)
+                        .add(calcSpecular(material.kS, l, n, v, material.nShininess, intensity));
+                shadows.add(new Ray(point, l.scale(-1), n), light.getDistance(point), primary, k, local);
+            }
+        }
+    }
+
+    /**
+     * The shadow rays stage - traces all the shadow rays and adds the light which passes them.
+     *
+     * @param shadows the shadow rays
+     * @param colors  the colors of the primary rays
+     */
+    private void traceShadows(Shadows shadows, Color[] colors) {
+        for (int s = 0; s < shadows.size; s++) {
+            Double3 ktr = scene.geometries.transmittance(shadows.rays[s], shadows.distances[s], MIN_CALC_COLOR_K);
+            Double3 k = shadows.k[s];
+            if (!ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) {
+                int primary = shadows.primaries[s];
+                colors[primary] = colors[primary].add(shadows.light[s].scale(ktr).scale(k));
+            }
+        }
+    }
+
+    /**
+     * The secondary rays stage - constructs the reflected and refracted rays of the hits of a wave,
+     * unless their K effect is too weak to be seen.
+     *
+     * @param wave the wave
+     * @param next the wave to fill with the secondary rays
+     */
+    private void constructSecondaryRays(Wave wave, Wave next) {
+        for (int i = 0; i < wave.size; i++) {
+            if (!wave.found[i])
+                continue;
+            Ray ray = wave.rays[i];
+            HitRecord hit = wave.hits[i];
+            Point point = hit.getPoint(ray);
+            Vector n = hit.getNormal(ray);
+            Vector v = ray.getDir();
+            Material material = hit.geometry.getMaterial();
+
+            Double3 kkr = wave.k[i].product(material.kR);
+            if (!kkr.lowerThan(MIN_CALC_COLOR_K))
+                next.add(constructReflectedRay(point, v, n), wave.primaries[i], kkr);
+            Double3 kkt = wave.k[i].product(material.kT);
+            if (!kkt.lowerThan(MIN_CALC_COLOR_K))
+                next.add(constructRefractedRay(point, v, n), wave.primaries[i], kkt);
+        }
+    }
+    //endregion
+}
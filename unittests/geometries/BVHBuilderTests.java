@@ -0,0 +1,100 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test units for geometries.BVHBuilder class
+ */
+class BVHBuilderTests {
+
+    /**
+     * Creates a grid of n * n small triangles on the plane z = 0.
+     *
+     * @param n the amount of triangles on each side of the grid
+     * @return the triangles
+     */
+    private static Geometries createGrid(int n) {
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                geometries.add(new Triangle(new Point(i, j, 0), new Point(i + 0.5, j, 0), new Point(i, j + 0.5, 0)));
+        return geometries;
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildAcceleration(BVHBuilder)}.
+     */
+    @Test
+    void testBuild() {
+        Ray hit = new Ray(new Point(5.1, 7.1, 1), new Vector(0, 0, -1));
+        Ray miss = new Ray(new Point(5.4, 7.4, 1), new Vector(0, 0, -1));
+
+        for (BVHBuilder.Quality quality : BVHBuilder.Quality.values()) {
+            BVHBuilder builder = new BVHBuilder().setQuality(quality).setMaxLeafSize(2);
+            Geometries geometries = createGrid(16).buildAcceleration(builder);
+            BVHBuilder.Statistics statistics = builder.getStatistics();
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The tree holds all the geometries in leaves which are not too big
+            int[] histogram = statistics.leafSizeHistogram();
+            int geometriesCount = 0, leavesCount = 0;
+            for (int size = 0; size < histogram.length; size++) {
+                geometriesCount += size * histogram[size];
+                leavesCount += histogram[size];
+            }
+            assertEquals(3, histogram.length, quality + ": wrong histogram size");
+            assertEquals(256, geometriesCount, quality + ": not all the geometries are in the tree");
+
+            // TC02: A binary tree has one inner node less than its leaves
+            assertEquals(2 * leavesCount - 1, statistics.nodeCount(), quality + ": wrong node count");
+
+            // TC03: A balanced enough tree
+            assertTrue(statistics.depth() <= 12, quality + ": the tree is too deep");
+            assertTrue(statistics.sahCost() > 0, quality + ": wrong SAH cost");
+
+            // TC04: Same intersections as without the tree
+            assertEquals(1, geometries.findIntersections(hit).size(), quality + ": wrong intersections");
+            assertNull(geometries.findIntersections(miss), quality + ": wrong intersections");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: All the geometries have the same center
+        BVHBuilder builder = new BVHBuilder().setMaxLeafSize(1);
+        Geometries geometries = new Geometries();
+        for (int i = 1; i <= 5; i++)
+            geometries.add(new Sphere(i, new Point(0, 0, 0)));
+        geometries.buildAcceleration(builder);
+        assertEquals(5, Arrays.stream(builder.getStatistics().leafSizeHistogram()).sum(),
+                "Geometries with the same center are not split");
+        assertEquals(10, geometries.findIntersections(new Ray(new Point(0, 0, 10), new Vector(0, 0, -1))).size(),
+                "Wrong intersections of the same center");
+    }
+
+    /**
+     * Test that the surface area heuristic builds a cheaper tree than the median split
+     */
+    @Test
+    void testSahCost() {
+        // a dense cluster and a few far away geometries - a median split cuts through the cluster
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 60; i++)
+            geometries.add(new Sphere(0.1, new Point(i * 0.01, 0, 0)));
+        for (int i = 0; i < 4; i++)
+            geometries.add(new Sphere(0.1, new Point(100 + 50 * i, 0, 0)));
+
+        BVHBuilder median = new BVHBuilder().setQuality(BVHBuilder.Quality.MEDIAN);
+        BVHBuilder sah = new BVHBuilder().setQuality(BVHBuilder.Quality.SAH);
+        new Geometries(geometries).buildAcceleration(median);
+        new Geometries(geometries).buildAcceleration(sah);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: SAH tree is not more expensive than the median one
+        assertTrue(sah.getStatistics().sahCost() <= median.getStatistics().sahCost(),
+                "SAH tree is more expensive than the median tree");
+    }
+}
@@ -0,0 +1,65 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test units for geometries.BoundingBox class
+ */
+class BoundingBoxTests {
+
+    /**
+     * Test method for {@link geometries.BoundingBox#union(BoundingBox)}.
+     */
+    @Test
+    void testUnion() {
+        BoundingBox box = new BoundingBox(0, 0, 0, 1, 1, 1)
+                .union(new BoundingBox(new Point(-1, 2, 0.5), new Point(0.5, 3, 0.5)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The union contains both boxes
+        assertEquals(new Point(-1, 0, 0), box.getMin(), "Wrong minimal corner of the union");
+        assertEquals(new Point(1, 3, 1), box.getMax(), "Wrong maximal corner of the union");
+        assertEquals(1, box.getLongestAxis(), "Wrong longest axis of the union");
+    }
+
+    /**
+     * Test method for {@link geometries.BoundingBox#intersects(Ray, double)}.
+     */
+    @Test
+    void testIntersects() {
+        BoundingBox box = new BoundingBox(0, 0, 0, 1, 1, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the box
+        assertTrue(box.intersects(new Ray(new Point(-1, -1, -1), new Vector(1, 1, 1))),
+                "Ray crossing the box doesn't work");
+
+        // TC02: Ray misses the box
+        assertFalse(box.intersects(new Ray(new Point(-1, 2, 0), new Vector(1, 0, 0))),
+                "Ray missing the box doesn't work");
+
+        // TC03: Ray points away from the box
+        assertFalse(box.intersects(new Ray(new Point(2, 2, 2), new Vector(1, 1, 1))),
+                "Ray pointing away from the box doesn't work");
+
+        // TC04: Ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(0.5, 0.5, 0.5), new Vector(1, 2, 3))),
+                "Ray from inside the box doesn't work");
+
+        // TC05: Box is farther than the maximal distance
+        assertFalse(box.intersects(new Ray(new Point(-5, 0.5, 0.5), new Vector(1, 0, 0)), 4),
+                "Maximal distance doesn't work");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray parallel to an axis inside the slab
+        assertTrue(box.intersects(new Ray(new Point(0.5, 0.5, -3), new Vector(0, 0, 1))),
+                "Ray parallel to the axes doesn't work");
+
+        // TC12: Flat box (e.g. of an axis aligned triangle)
+        assertTrue(new BoundingBox(0, 0, 0, 1, 1, 0).intersects(new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1))),
+                "Flat box doesn't work");
+    }
+}
@@ -268,4 +268,41 @@ class CylinderTests {
         // TC135: The ray starts in base and goes through the center (no intersections)
         assertNull(cylinder.findIntersections(new Ray(new Point(-4, 10, 0), new Vector(1, 0, 0))), "Should be null");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Cylinder#findClosestHit(Ray)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Cylinder cylinder = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the side
+        Ray ray = new Ray(new Point(-3, 0, 1), new Vector(1, 0, 0));
+        assertEquals(2, cylinder.findClosestHit(ray).t, 1e-10, "Wrong closest distance of the side");
+        assertEquals(2, cylinder.countIntersections(ray, 10), "Wrong amount of intersections of the side");
+
+        // TC02: Ray crosses both caps
+        ray = new Ray(new Point(0.5, 0, 5), new Vector(0, 0, -1));
+        assertEquals(3, cylinder.findClosestHit(ray).t, 1e-10, "Wrong closest distance of the caps");
+        assertEquals(2, cylinder.countIntersections(ray, 10), "Wrong amount of intersections of the caps");
+        assertEquals(1, cylinder.countIntersections(ray, 4), "Wrong amount of close intersections of the caps");
+
+        // TC03: Ray crosses the top cap and the side
+        ray = new Ray(new Point(0, 0, 3), new Vector(0.5, 0, -1));
+        assertEquals(Math.sqrt(1.25), cylinder.findClosestHit(ray).t, 1e-10, "Wrong closest distance of a cap");
+        assertEquals(2, cylinder.countIntersections(ray, 10), "Wrong amount of intersections of a cap and the side");
+
+        // TC04: Ray passes above the cylinder
+        assertNull(cylinder.findClosestHit(new Ray(new Point(-3, 0, 3), new Vector(1, 0, 0))), "Ray above the cylinder");
+
+        // TC05: Ray starts inside and leaves through the top cap
+        ray = new Ray(new Point(0.5, 0, 0.5), new Vector(0, 0, 1));
+        assertEquals(1.5, cylinder.findClosestHit(ray).t, 1e-10, "Wrong distance from inside");
+        assertEquals(1, cylinder.countIntersections(ray, 10), "Wrong amount of intersections from inside");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray crosses the rim of both caps only
+        assertNull(cylinder.findClosestHit(new Ray(new Point(-1, 0, 3), new Vector(0, 0, -1))), "Ray along the side");
+    }
+}
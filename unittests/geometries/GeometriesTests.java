@@ -49,4 +49,219 @@ class GeometriesTests {
 
         assertEquals(4, geometries.findIntersections(ray).size(), "All geometry in the set intersects doesn't work.");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Geometries#buildAcceleration()}.
+     */
+    @Test
+    void testBuildAcceleration() {
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 10; i++)
+            for (int j = 0; j < 10; j++)
+                geometries.add(new Sphere(1, new Point(3 * i, 3 * j, 0)));
+        geometries.add(new Plane(new Point(0, 0, -5), new Vector(0, 0, 1)),
+                new Geometries(new Triangle(new Point(-1, -1, 5), new Point(1, -1, 5), new Point(0, 1, 5))));
+
+        Ray[] rays = {
+                new Ray(new Point(0, 0, 10), new Vector(0, 0, -1)),   // triangle, sphere and plane
+                new Ray(new Point(3, 6, 10), new Vector(0, 0, -1)),   // sphere and plane
+                new Ray(new Point(-10, 0, 0), new Vector(1, 0, 0)),   // a row of 10 spheres
+                new Ray(new Point(1.5, 1.5, 10), new Vector(0, 0, -1)), // only the plane
+                new Ray(new Point(1.5, 1.5, 10), new Vector(0, 0, 1))   // nothing
+        };
+        Integer[] expected = { 4, 3, 20, 1, null };
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same intersections before and after building the hierarchy
+        for (int i = 0; i < rays.length; i++) {
+            var result = geometries.findIntersections(rays[i]);
+            assertEquals(expected[i], result == null ? null : result.size(), "Wrong intersections before build");
+        }
+        geometries.buildAcceleration();
+        for (int i = 0; i < rays.length; i++) {
+            var result = geometries.findIntersections(rays[i]);
+            assertEquals(expected[i], result == null ? null : result.size(), "Wrong intersections after build");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Empty geometries set
+        assertNull(new Geometries().buildAcceleration().findIntersections(rays[0]),
+                "Empty geometries set doesn't work after build");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#isOccluded(Ray, double)}.
+     */
+    @Test
+    void testIsOccluded() {
+        Ray ray = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+        Geometry transparent = new Sphere(1, new Point(0, 0, 5)).setMaterial(new Material().setKt(0.5));
+        Geometry opaque = new Plane(new Point(0, 0, 0), new Vector(0, 0, 1));
+        Geometries geometries = new Geometries(transparent, opaque);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Opaque geometry closer than the distance
+        assertTrue(geometries.isOccluded(ray, 20), "Opaque geometry doesn't occlude");
+
+        // TC02: Only a transparent geometry closer than the distance
+        assertFalse(geometries.isOccluded(ray, 8), "Transparent geometry occludes");
+
+        // TC03: Same with the hierarchy
+        geometries.buildAcceleration();
+        assertTrue(geometries.isOccluded(ray, 20), "Opaque geometry doesn't occlude after build");
+        assertFalse(geometries.isOccluded(ray, 8), "Transparent geometry occludes after build");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Opaque geometry exactly at the distance
+        assertFalse(geometries.isOccluded(ray, 10), "Geometry at the distance occludes");
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.Geometries#transmittance(Ray, double, double, geometries.Intersectable.HitRecord)}.
+     */
+    @Test
+    void testTransmittanceBlocker() {
+        Ray ray = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+        Geometry transparent = new Sphere(1, new Point(0, 0, 5)).setMaterial(new Material().setKt(0.5));
+        Geometry opaque = new Sphere(1, new Point(0, 0, 2));
+        Geometries geometries = new Geometries(transparent, new Geometries(opaque));
+        Intersectable.HitRecord blocker = new Intersectable.HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The opaque geometry is found in the nested collection
+        assertEquals(Double3.ZERO, geometries.transmittance(ray, 20, 0.001, blocker), "Opaque geometry doesn't block");
+        assertSame(opaque, blocker.geometry, "Wrong blocker");
+
+        // TC02: Only a transparent geometry closer than the distance
+        assertEquals(new Double3(0.25), geometries.transmittance(ray, 7, 0.001, blocker.reset()),
+                "Wrong transmittance of a transparent geometry");
+        assertNull(blocker.geometry, "Transparent geometry blocks");
+
+        // TC03: Same with the hierarchy
+        geometries.buildAcceleration();
+        geometries.transmittance(ray, 20, 0.001, blocker.reset());
+        assertSame(opaque, blocker.geometry, "Wrong blocker after build");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Transparent geometry under the threshold - blocked without a blocker
+        assertEquals(Double3.ZERO, geometries.transmittance(ray, 7, 0.5, blocker.reset()), "Threshold doesn't work");
+        assertNull(blocker.geometry, "Transparent geometry under the threshold blocks");
+
+        // TC12: Nothing in the direction of the ray
+        geometries.transmittance(new Ray(new Point(0, 0, 10), new Vector(0, 0, 1)), 20, 0.001, blocker.reset());
+        assertNull(blocker.geometry, "Blocker behind the ray");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#transmittance(Ray, double, double)}.
+     */
+    @Test
+    void testTransmittance() {
+        Ray ray = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+        Geometry sphere = new Sphere(1, new Point(0, 0, 5)).setMaterial(new Material().setKt(0.5));
+        Geometry triangle = new Triangle(new Point(-1, -1, 2), new Point(1, -1, 2), new Point(0, 1, 2))
+                .setMaterial(new Material().setKt(0.5));
+        Geometry plane = new Plane(new Point(0, 0, 0), new Vector(0, 0, 1));
+        Geometries geometries = new Geometries(sphere, triangle, plane);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Nothing closer than the distance
+        assertEquals(Double3.ONE, geometries.transmittance(ray, 2, 0.001), "Wrong transmittance of an empty path");
+
+        // TC02: Both sides of the sphere closer than the distance
+        assertEquals(new Double3(0.25), geometries.transmittance(ray, 7, 0.001), "Wrong transmittance of a sphere");
+
+        // TC03: The sphere and the triangle
+        assertEquals(new Double3(0.125), geometries.transmittance(ray, 9, 0.001),
+                "Wrong transmittance of a sphere and a triangle");
+
+        // TC04: Opaque plane behind them
+        assertEquals(Double3.ZERO, geometries.transmittance(ray, 20, 0.001), "Wrong transmittance of an opaque plane");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Transmittance below the threshold
+        assertEquals(Double3.ZERO, geometries.transmittance(ray, 9, 0.2), "Threshold doesn't work");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestHit(Ray)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Geometry far = new Sphere(1, new Point(0, 0, -5));
+        Geometry near = new Triangle(new Point(-1, -1, 2), new Point(1, -1, 2), new Point(0, 1, 2));
+        Geometry plane = new Plane(new Point(0, 0, -10), new Vector(0, 0, 1));
+        Geometries geometries = new Geometries(far, plane, near);
+        Ray ray = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest of several geometries
+        Intersectable.HitRecord hit = geometries.findClosestHit(ray);
+        assertSame(near, hit.geometry, "Wrong closest geometry");
+        assertEquals(8, hit.t, 1e-10, "Wrong closest distance");
+        assertEquals(new Point(0, 0, 2), hit.getPoint(ray), "Wrong closest point");
+
+        // TC02: Same with the hierarchy
+        for (int i = 0; i < 20; i++)
+            geometries.add(new Sphere(0.5, new Point(i - 10, 3, 0)));
+        geometries.buildAcceleration();
+        hit = geometries.findClosestHit(ray);
+        assertSame(near, hit.geometry, "Wrong closest geometry after build");
+
+        // TC03: The closest of the two intersections of a sphere
+        ray = new Ray(new Point(0, 0, 1), new Vector(0, 0, -1));
+        hit = geometries.findClosestHit(ray);
+        assertSame(far, hit.geometry, "Wrong closest geometry of a sphere");
+        assertEquals(5, hit.t, 1e-10, "Wrong closest distance of a sphere");
+
+        // TC04: No intersections
+        assertNull(geometries.findClosestHit(new Ray(new Point(0, 0, 10), new Vector(0, 0, 1))),
+                "Wrong closest hit without intersections");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestHits(RayPacket)}.
+     */
+    @Test
+    void testFindClosestHits() {
+        Geometries geometries = new Geometries(
+                new Sphere(1, new Point(0, 0, -5)),
+                new Triangle(new Point(-1, -1, 2), new Point(1, -1, 2), new Point(0, 1, 2)),
+                new Plane(new Point(0, 0, -10), new Vector(0, 0, 1)),
+                new Tube(0.5, new Ray(new Point(0, -3, 0), new Vector(1, 0, 0))));
+        for (int i = 0; i < 20; i++)
+            geometries.add(new Sphere(0.5, new Point(i - 10, 3, 0)));
+        geometries.buildAcceleration();
+
+        Ray[] rays = new Ray[RayPacket.MAX_SIZE];
+        for (int k = 0; k < rays.length; k++)
+            rays[k] = new Ray(new Point(0, 0, 10), new Vector(k - 8, 3 - k % 7, -10));
+        RayPacket packet = new RayPacket();
+        Intersectable.HitRecord hit = new Intersectable.HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The same closest hits as the rays one by one (spheres, a triangle, a plane and a tube)
+        geometries.findClosestHits(packet.load(rays, 0, rays.length));
+        for (int k = 0; k < rays.length; k++) {
+            Intersectable.HitRecord expected = geometries.findClosestHit(rays[k]);
+            assertEquals(expected != null, packet.store(k, hit), "Wrong packet hit");
+            if (expected != null) {
+                assertSame(expected.geometry, hit.geometry, "Wrong packet closest geometry");
+                assertEquals(expected.t, hit.t, "Wrong packet closest distance");
+            }
+        }
+
+        // TC02: All the rays miss
+        geometries.findClosestHits(packet.load(new Ray[] { new Ray(new Point(0, 0, 10), new Vector(0, 0, 1)) }, 0, 1));
+        assertFalse(packet.store(0, hit), "Wrong packet hit without intersections");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Too many rays in a packet
+        assertThrows(IllegalArgumentException.class, () -> packet.load(new Ray[RayPacket.MAX_SIZE + 1], 0,
+                RayPacket.MAX_SIZE + 1), "Too many rays accepted");
+
+        // TC12: An empty packet
+        assertThrows(IllegalArgumentException.class, () -> packet.load(rays, 0, 0), "Empty packet accepted");
+    }
+}
@@ -132,4 +132,27 @@ class PlaneTests {
                 "Ray begins in the same point which appears as the plane's reference point BVA doesn't work.");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Plane#findClosestHit(Ray)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Plane plane = new Plane(new Point(0, 0, 0), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the plane - the normal is filled by the plane
+        Ray ray = new Ray(new Point(0, 0, 5), new Vector(0, 0, -1));
+        Intersectable.HitRecord hit = plane.findClosestHit(ray);
+        assertEquals(5, hit.t, 1e-10, "Wrong closest distance");
+        assertEquals(new Vector(0, 0, 1), hit.normal, "Wrong normal");
+        assertEquals(0, plane.countIntersections(ray, 4), "Wrong amount of intersections");
+
+        // TC02: Ray moves away from the plane
+        assertNull(plane.findClosestHit(new Ray(new Point(0, 0, 5), new Vector(0, 0, 1))), "Ray moves away");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray parallel to the plane
+        assertNull(plane.findClosestHit(new Ray(new Point(0, 0, 5), new Vector(1, 0, 0))), "Parallel ray");
+    }
+}
@@ -88,8 +88,11 @@ public class PolygonTests {
                     "Polygon's normal is not orthogonal to one of the edges");
     }
 
-   /* @Test
-    public void testFindIntersections(){
+    /**
+     * Test method for {@link geometries.Polygon#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    public void testFindIntersections() {
         Polygon polygon = new Polygon(new Point(-0.5, -0.5, 0), new Point(0, 1, 0), new Point(1, 0, 0));
 
         // ============ Equivalence Partitions Tests ==============
@@ -121,6 +124,40 @@ public class PolygonTests {
         ray = new Ray(new Point(0.25, 0.25, 1), new Vector(-1.25, -2.25, -1));
         assertNull(polygon.findIntersections(ray),
                 "Ray intersects on edge's continuation of polygon BVA doesn't work.");
-    }*/
+    }
+
+    /**
+     * Test method for {@link geometries.Polygon#findClosestHit(primitives.Ray)}.
+     */
+    @Test
+    public void testFindClosestHit() {
+        // a square in a plane which is tilted towards the y axis
+        Polygon square = new Polygon(new Point(0, 0, 0), new Point(2, 0, 0), new Point(2, 2, 1), new Point(0, 2, 1));
+        Vector down = new Vector(0, 0, -1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the polygon in the part beyond its first three vertices
+        Ray ray = new Ray(new Point(0.5, 1.5, 3), down);
+        assertEquals(2.25, square.findClosestHit(ray).t, 1e-10, "Wrong closest distance");
+        assertEquals(1, square.countIntersections(ray, 4), "Wrong amount of intersections");
+        assertEquals(0, square.countIntersections(ray, 2), "Counted an intersection beyond the distance");
+
+        // TC02: Ray crosses the plane outside the polygon
+        assertNull(square.findClosestHit(new Ray(new Point(3, 1, 3), down)), "Ray outside the polygon");
+
+        // TC03: Ray parallel to the x axis inside a vertical pentagon, which is projected on the y-z plane
+        Polygon pentagon = new Polygon(new Point(0, 0, 0), new Point(0, 2, 0), new Point(0, 3, 1.5),
+                new Point(0, 1, 3), new Point(0, -1, 1.5));
+        assertEquals(List.of(new Point(0, 1, 1)), pentagon.findIntersections(new Ray(new Point(-1, 1, 1), new Vector(1, 0, 0))),
+                "Wrong intersection with a vertical polygon");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray crosses the edge between the last and the first vertices
+        assertNull(square.findClosestHit(new Ray(new Point(0, 1, 3), down)), "Ray on the closing edge");
+
+        // TC12: Ray crosses the diagonal between the first and the third vertices
+        assertEquals(2.5, square.findClosestHit(new Ray(new Point(1, 1, 3), down)).t, 1e-10,
+                "Missed the inner diagonal of the polygon");
+    }
 
 }
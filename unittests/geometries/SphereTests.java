@@ -144,4 +144,36 @@ class SphereTests {
         assertNull(sphere.findIntersections(ray), "Ray outside orthogonal to sphere center line BVA doesn't work.");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Sphere#findClosestHit(Ray)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Sphere sphere = new Sphere(1d, new Point(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the sphere - the closer point
+        Ray ray = new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0));
+        Intersectable.HitRecord hit = sphere.findClosestHit(ray);
+        assertEquals(1, hit.t, 1e-10, "Wrong closest distance");
+        assertEquals(new Point(0, 0, 0), hit.getPoint(ray), "Wrong closest point");
+        assertEquals(2, sphere.countIntersections(ray, 10), "Wrong amount of intersections");
+        assertEquals(1, sphere.countIntersections(ray, 2), "Wrong amount of close intersections");
+
+        // TC02: Ray starts inside the sphere
+        ray = new Ray(new Point(1.5, 0, 0), new Vector(1, 0, 0));
+        assertEquals(0.5, sphere.findClosestHit(ray).t, 1e-10, "Wrong closest distance from inside");
+        assertEquals(1, sphere.countIntersections(ray, 10), "Wrong amount of intersections from inside");
+
+        // TC03: Ray misses the sphere
+        assertNull(sphere.findClosestHit(new Ray(new Point(-1, 0, 0), new Vector(1, 1, 0))), "Ray misses the sphere");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A record with a closer intersection is not updated
+        Intersectable.HitRecord closer = new Intersectable.HitRecord();
+        closer.t = 0.5;
+        assertFalse(sphere.findClosestHitHelper(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), closer),
+                "A farther intersection updated the record");
+    }
+}
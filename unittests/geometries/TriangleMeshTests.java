@@ -0,0 +1,168 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test units for geometries.TriangleMesh class
+ */
+class TriangleMeshTests {
+    /**
+     * The amount of squares along each side of the test grid
+     */
+    private static final int N = 8;
+
+    /**
+     * Builds the vertices of a bumpy grid of N x N squares over the xy plane.
+     *
+     * @return the coordinates of the vertices
+     */
+    private static double[] gridVertices() {
+        double[] vertices = new double[3 * (N + 1) * (N + 1)];
+        for (int i = 0; i <= N; i++)
+            for (int j = 0; j <= N; j++) {
+                int v = 3 * (i * (N + 1) + j);
+                vertices[v] = i;
+                vertices[v + 1] = j;
+                vertices[v + 2] = Math.sin(i) * Math.cos(j);
+            }
+        return vertices;
+    }
+
+    /**
+     * Builds the indices of the grid - two triangles for each square.
+     *
+     * @return the indices of the triangles
+     */
+    private static int[] gridIndices() {
+        int[] indices = new int[6 * N * N];
+        int k = 0;
+        for (int i = 0; i < N; i++)
+            for (int j = 0; j < N; j++) {
+                int v = i * (N + 1) + j;
+                indices[k++] = v;
+                indices[k++] = v + N + 1;
+                indices[k++] = v + 1;
+                indices[k++] = v + 1;
+                indices[k++] = v + N + 1;
+                indices[k++] = v + N + 2;
+            }
+        return indices;
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        double[] vertices = { 0, 0, 0, 1, 0, 0, 0, 1, 0 };
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: A correct mesh
+        assertDoesNotThrow(() -> new TriangleMesh(vertices, new int[] { 0, 1, 2 }),
+                "Failed constructing a correct mesh");
+
+        // TC02: A coordinate is missing
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[] { 0, 0, 0, 1, 0, 0, 0, 1 }, new int[] { 0, 1, 2 }),
+                "Constructed a mesh with a missing coordinate");
+
+        // TC03: An index is missing
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[] { 0, 1 }),
+                "Constructed a mesh with a missing index");
+
+        // TC04: An index is out of the vertices
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[] { 0, 1, 3 }),
+                "Constructed a mesh with an index out of the vertices");
+
+        // TC05: A degenerate triangle
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[] { 0, 1, 1 }),
+                "Constructed a mesh with a degenerate triangle");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: No triangles
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[0]),
+                "Constructed a mesh without triangles");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#getNormal(Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        TriangleMesh mesh = new TriangleMesh(new double[] { 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1 },
+                new int[] { 0, 1, 2, 0, 2, 3 });
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: A point on the first triangle
+        assertEquals(new Vector(0, 0, 1), mesh.getNormal(new Point(0.25, 0.25, 0)),
+                "Bad normal on the first triangle");
+
+        // TC02: A point on the second triangle
+        assertEquals(new Vector(1, 0, 0), mesh.getNormal(new Point(0, 0.25, 0.25)),
+                "Bad normal on the second triangle");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        TriangleMesh mesh = new TriangleMesh(gridVertices(), gridIndices());
+        Vector down = new Vector(0, 0, -1);
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: A ray through the grid
+        assertEquals(1, mesh.findIntersections(new Ray(new Point(2.3, 4.6, 5), down)).size(),
+                "Wrong amount of intersections through the grid");
+
+        // TC02: A ray beside the grid
+        assertNull(mesh.findIntersections(new Ray(new Point(-1, 4.6, 5), down)),
+                "Found intersections beside the grid");
+
+        // TC03: A ray along the grid, under the bumps
+        assertNull(mesh.findIntersections(new Ray(new Point(-1, 4.6, -5), new Vector(1, 0, 0))),
+                "Found intersections under the grid");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findClosestHit(Ray)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        double[] vertices = gridVertices();
+        int[] indices = gridIndices();
+        TriangleMesh mesh = new TriangleMesh(vertices, indices);
+        Geometries triangles = new Geometries();
+        for (int i = 0; i < mesh.size(); i++)
+            triangles.add(new Triangle(mesh.vertex(i, 0), mesh.vertex(i, 1), mesh.vertex(i, 2)));
+        Point light = new Point(-2, -3, 4);
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: The same hits as of the separate triangles for rays in all directions
+        for (double x = -1; x <= N + 1; x += 0.37)
+            for (double y = -1; y <= N + 1; y += 0.41) {
+                Ray ray = new Ray(light, new Point(x, y, 0).subtract(light));
+                Intersectable.HitRecord expected = triangles.findClosestHit(ray);
+                Intersectable.HitRecord result = mesh.findClosestHit(ray);
+                if (expected == null) {
+                    assertNull(result, "Found a hit which the triangles don't have");
+                    continue;
+                }
+                assertNotNull(result, "Missed a hit of the triangles");
+                assertEquals(expected.t, result.t, "Wrong distance of the hit");
+                assertEquals(expected.getNormal(ray), result.getNormal(ray), "Wrong normal of the hit");
+            }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: A ray which starts at a vertex of the grid and leaves it
+        assertNull(mesh.findClosestHit(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))),
+                "Found a hit at the head of the ray");
+    }
+}
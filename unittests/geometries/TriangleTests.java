@@ -69,4 +69,36 @@ class TriangleTests {
                 "Test when the point is on edge's continuation failed");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Triangle#findClosestHit(Ray)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Triangle triangle = new Triangle(new Point(0, 0, 0), new Point(2, 0, 0), new Point(0, 2, 0));
+        Vector down = new Vector(0, 0, -1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the triangle
+        Ray ray = new Ray(new Point(0.5, 0.5, 3), down);
+        assertEquals(3, triangle.findClosestHit(ray).t, 1e-10, "Wrong closest distance");
+        assertEquals(1, triangle.countIntersections(ray, 4), "Wrong amount of intersections");
+        Intersectable.HitRecord hit = triangle.findClosestHit(new Ray(new Point(0.5, 1, 3), down));
+        assertEquals(0.25, hit.u, 1e-10, "Wrong barycentric weight of the second vertex");
+        assertEquals(0.5, hit.v, 1e-10, "Wrong barycentric weight of the third vertex");
+
+        // TC02: Ray crosses the plane outside the triangle
+        assertNull(triangle.findClosestHit(new Ray(new Point(3, 3, 3), down)), "Ray outside the triangle");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray crosses an edge
+        assertNull(triangle.findClosestHit(new Ray(new Point(1, 0, 3), down)), "Ray on an edge");
+
+        // TC12: Ray crosses the hypotenuse
+        assertNull(triangle.findClosestHit(new Ray(new Point(1, 1, 3), down)), "Ray on the hypotenuse");
+
+        // TC13: Ray parallel to the triangle
+        assertNull(triangle.findClosestHit(new Ray(new Point(0.5, 0.5, 0), new Vector(1, 1, 0))),
+                "Ray parallel to the triangle");
+    }
+}
@@ -342,4 +342,29 @@ class TubeTests {
             intersections = List.of(intersections.get(1), intersections.get(0));
         assertEquals(List.of(new Point(-1, 0, 0), new Point(1, 0, 2)), intersections, "Wrong point");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Tube#findClosestHit(Ray)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Tube tube = new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the tube
+        Ray ray = new Ray(new Point(-3, 0, 5), new Vector(1, 0, 0));
+        Intersectable.HitRecord hit = tube.findClosestHit(ray);
+        assertEquals(2, hit.t, 1e-10, "Wrong closest distance");
+        assertEquals(new Point(-1, 0, 5), hit.getPoint(ray), "Wrong closest point");
+        assertEquals(2, tube.countIntersections(ray, 10), "Wrong amount of intersections");
+
+        // TC02: Ray starts inside the tube
+        ray = new Ray(new Point(0, 0, 1), new Vector(1, 0, 0));
+        assertEquals(1, tube.findClosestHit(ray).t, 1e-10, "Wrong closest distance from inside");
+        assertEquals(1, tube.countIntersections(ray, 10), "Wrong amount of intersections from inside");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray parallel to the axis
+        assertNull(tube.findClosestHit(new Ray(new Point(0.5, 0, 0), new Vector(0, 0, 1))), "Parallel ray");
+    }
+}
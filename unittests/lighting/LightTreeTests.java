@@ -0,0 +1,58 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing LightTree Class
+ */
+class LightTreeTests {
+
+    /**
+     * Test method for {@link LightTree#select(Point, List)}.
+     */
+    @Test
+    void testSelect() {
+        // a cluster of 50 lights near the origin, a cluster of 50 lights far away and a directional light
+        List<LightSource> lights = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            lights.add(new PointLight(new Color(100, 100, 100), new Point(i % 5, i / 5, 0)).setKq(1));
+            lights.add(new PointLight(new Color(100, 100, 100), new Point(1000 + i % 5, i / 5, 0)).setKq(1));
+        }
+        DirectionalLight directional = new DirectionalLight(new Color(10, 10, 10), new Vector(0, 0, -1));
+        lights.add(directional);
+        List<LightSource> selected = new ArrayList<>();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The far cluster is skipped, the near one and the directional light are selected
+        new LightTree(lights, 1).select(new Point(2, 5, 1), selected);
+        assertEquals(51, selected.size(), "Wrong amount of selected lights");
+        assertTrue(selected.contains(directional), "Directional light is not selected");
+        for (LightSource light : selected)
+            if (light instanceof PointLight pointLight)
+                assertTrue(pointLight.getPosition().getX() < 10, "Far light is selected");
+
+        // TC02: A point between the clusters far from both - only the directional light
+        new LightTree(lights, 1).select(new Point(500, 5, 1), selected);
+        assertEquals(List.of(directional), selected, "Distant clusters are selected");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No threshold - all the lights are selected
+        new LightTree(lights, 0).select(new Point(500, 5, 1), selected);
+        assertEquals(lights.size(), selected.size(), "Not all the lights are selected");
+
+        // TC12: No lights
+        new LightTree(List.of(), 1).select(new Point(0, 0, 0), selected);
+        assertTrue(selected.isEmpty(), "Lights selected from an empty tree");
+
+        // TC13: Negative threshold
+        assertThrows(IllegalArgumentException.class, () -> new LightTree(lights, -1), "Negative threshold accepted");
+    }
+}
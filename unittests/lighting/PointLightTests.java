@@ -0,0 +1,77 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing PointLight and SpotLight culling
+ */
+class PointLightTests {
+
+    /**
+     * Test method for {@link PointLight#getInfluenceRadius()}.
+     */
+    @Test
+    void testGetInfluenceRadius() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Quadratic attenuation - 100 / (1 + d^2) = 1 at d = sqrt(99)
+        assertEquals(Math.sqrt(99),
+                new PointLight(new Color(100, 50, 0), new Point(0, 0, 0)).setKq(1).setCutoff(1).getInfluenceRadius(),
+                1e-10, "Wrong radius of quadratic attenuation");
+
+        // TC02: Linear attenuation - 100 / (1 + d) = 1 at d = 99
+        assertEquals(99,
+                new PointLight(new Color(100, 50, 0), new Point(0, 0, 0)).setKl(1).setCutoff(1).getInfluenceRadius(),
+                1e-10, "Wrong radius of linear attenuation");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: No cutoff
+        assertEquals(Double.POSITIVE_INFINITY,
+                new PointLight(new Color(100, 50, 0), new Point(0, 0, 0)).setKq(1).getInfluenceRadius(),
+                "Radius without cutoff");
+
+        // TC12: No attenuation
+        assertEquals(Double.POSITIVE_INFINITY,
+                new PointLight(new Color(100, 50, 0), new Point(0, 0, 0)).setCutoff(1).getInfluenceRadius(),
+                "Radius without attenuation");
+
+        // TC13: Light weaker than the cutoff
+        assertEquals(0,
+                new PointLight(new Color(100, 50, 0), new Point(0, 0, 0)).setCutoff(200).getInfluenceRadius(),
+                "Radius of a weak light");
+    }
+
+    /**
+     * Test method for {@link PointLight#canIlluminate(Point)} and {@link SpotLight#canIlluminate(Point)}.
+     */
+    @Test
+    void testCanIlluminate() {
+        LightSource point = new PointLight(new Color(100, 50, 0), new Point(0, 0, 0)).setKl(1).setCutoff(1);
+        LightSource spot = new SpotLight(new Color(100, 50, 0), new Point(0, 0, 0), new Vector(0, 0, -1))
+                .setKl(1).setCutoff(1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Point inside the radius
+        assertTrue(point.canIlluminate(new Point(0, 50, 0)), "Point inside the radius is culled");
+
+        // TC02: Point outside the radius
+        assertFalse(point.canIlluminate(new Point(0, 150, 0)), "Point outside the radius is not culled");
+
+        // TC03: Point inside the lobe of the spot
+        assertTrue(spot.canIlluminate(new Point(0, 0, -50)), "Point inside the lobe is culled");
+
+        // TC04: Point behind the spot
+        assertFalse(spot.canIlluminate(new Point(0, 0, 50)), "Point behind the spot is not culled");
+
+        // TC05: Point inside the radius, but the lobe factor lowers the intensity under the cutoff
+        assertFalse(spot.canIlluminate(new Point(0, 80, -10)), "Weak point of the lobe is not culled");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Point on the side of the spot
+        assertFalse(spot.canIlluminate(new Point(0, 50, 0)), "Point on the side of the spot is not culled");
+    }
+}
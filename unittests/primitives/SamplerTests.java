@@ -0,0 +1,148 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the samplers of the primitives package
+ */
+class SamplerTests {
+
+    /**
+     * Checks that a sampler generates the requested amount of points in the unit square
+     *
+     * @param sampler the sampler
+     * @param count   the amount of points
+     * @return the points
+     */
+    private double[] checkPoints(Sampler sampler, int count) {
+        double[] points = sampler.generate(count);
+        assertEquals(2 * count, points.length, "Wrong amount of points");
+        for (double coordinate : points)
+            assertTrue(coordinate >= 0 && coordinate < 1, "Point out of the unit square");
+        return points;
+    }
+
+    /**
+     * Counts the points in each cell of a grid over the unit square
+     *
+     * @param points the points
+     * @param cols   the amount of columns of the grid
+     * @param rows   the amount of rows of the grid
+     * @return the amount of points in each cell
+     */
+    private int[] cellCounts(double[] points, int cols, int rows) {
+        int[] counts = new int[cols * rows];
+        for (int k = 0; k < points.length; k += 2)
+            counts[(int) (points[k + 1] * rows) * cols + (int) (points[k] * cols)]++;
+        return counts;
+    }
+
+    /**
+     * Test method for {@link primitives.StratifiedSampler#generate(int, double[])}.
+     */
+    @Test
+    void testStratified() {
+        Util.setRandomSeed(1, 0);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: one point in each cell of the grid
+        for (int count : cellCounts(checkPoints(new StratifiedSampler(), 16), 4, 4))
+            assertEquals(1, count, "Cell without exactly one point");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: amount of points which is not a square - the rows have 4, 3 and 3 cells, with one
+        // point in each cell
+        double[] points = checkPoints(new StratifiedSampler(), 10);
+        assertArrayEquals(new int[] { 4, 3, 3 }, cellCounts(points, 1, 3), "Wrong amount of points in a row");
+        int[] cols = { 4, 3, 3 };
+        boolean[][] cells = { new boolean[4], new boolean[3], new boolean[3] };
+        for (int k = 0; k < points.length; k += 2) {
+            int row = (int) (points[k + 1] * 3);
+            int col = (int) (points[k] * cols[row]);
+            assertFalse(cells[row][col], "Cell with more than one point");
+            cells[row][col] = true;
+        }
+
+        // TC12: a single point
+        checkPoints(new StratifiedSampler(), 1);
+    }
+
+    /**
+     * Test method for {@link primitives.HaltonSampler#generate(int, double[])}.
+     */
+    @Test
+    void testHalton() {
+        Util.setRandomSeed(1, 0);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: the points are spread over the square - no empty cell in a 2x2 grid
+        for (int count : cellCounts(checkPoints(new HaltonSampler(), 16), 2, 2))
+            assertTrue(count > 0, "Empty cell");
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: the radical inverse of the first indices
+        assertEquals(0.5, HaltonSampler.radicalInverse(1, 2), "Wrong radical inverse");
+        assertEquals(2d / 3, HaltonSampler.radicalInverse(2, 3), 1e-15, "Wrong radical inverse");
+    }
+
+    /**
+     * Test method for {@link primitives.SobolSampler#generate(int, double[])}.
+     */
+    @Test
+    void testSobol() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: the scrambled sequence keeps its stratification - 16 points have one point in each
+        // elementary interval of area 1/16
+        for (long index = 0; index < 10; index++) {
+            Util.setRandomSeed(1, index);
+            double[] points = checkPoints(new SobolSampler(), 16);
+            for (int cols = 1; cols <= 16; cols *= 2)
+                for (int count : cellCounts(points, cols, 16 / cols))
+                    assertEquals(1, count, "Elementary interval without exactly one point");
+        }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: the unscrambled second dimension
+        assertEquals(0, SobolSampler.sobolSecondDimension(0), "Wrong Sobol point");
+        assertEquals(1 << 31, SobolSampler.sobolSecondDimension(1), "Wrong Sobol point");
+        assertEquals(3 << 30, SobolSampler.sobolSecondDimension(2), "Wrong Sobol point");
+    }
+
+    /**
+     * Test method for {@link primitives.BlueNoiseSampler#generate(int, double[])}.
+     */
+    @Test
+    void testBlueNoise() {
+        Util.setRandomSeed(1, 0);
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: the points are not close to each other
+        double[] points = checkPoints(new BlueNoiseSampler(), 64);
+        for (int p = 0; p < points.length; p += 2)
+            for (int q = p + 2; q < points.length; q += 2) {
+                double du = Math.abs(points[p] - points[q]), dv = Math.abs(points[p + 1] - points[q + 1]);
+                du = Math.min(du, 1 - du);
+                dv = Math.min(dv, 1 - dv);
+                assertTrue(Math.sqrt(du * du + dv * dv) > 0.5 / Math.sqrt(64), "Points are too close");
+            }
+
+        // =============== Boundary Values Tests ==================
+
+        // TC11: the maximal amount of points
+        checkPoints(new BlueNoiseSampler(), BlueNoiseSampler.MAX_POINTS);
+
+        // TC12: more than the maximal amount of points
+        assertThrows(IllegalArgumentException.class,
+                () -> new BlueNoiseSampler().generate(BlueNoiseSampler.MAX_POINTS + 1),
+                "Too many points were generated");
+    }
+}
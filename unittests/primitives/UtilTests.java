@@ -0,0 +1,43 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.Util class
+ */
+class UtilTests {
+
+    /**
+     * Test method for {@link primitives.Util#random(double, double)}.
+     */
+    @Test
+    void testRandom() {
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: the random numbers are in the range
+        Util.setRandomSeed(1, 0);
+        for (int k = 0; k < 1000; k++) {
+            double r = Util.random(-2, 3);
+            assertTrue(r >= -2 && r < 3, "Random number out of range");
+        }
+
+        // TC02: the same seed and index give the same numbers, also in another thread
+        Util.setRandomSeed(7, 42);
+        double[] expected = { Util.random(0, 1), Util.random(0, 1), Util.random(0, 1) };
+        double[][] actual = new double[1][];
+        Thread thread = new Thread(() -> {
+            Util.random(0, 1); // the state of the thread before the seeding doesn't matter
+            Util.setRandomSeed(7, 42);
+            actual[0] = new double[] { Util.random(0, 1), Util.random(0, 1), Util.random(0, 1) };
+        });
+        thread.start();
+        assertDoesNotThrow(() -> thread.join());
+        assertArrayEquals(expected, actual[0], "Same seed and index gave different numbers");
+
+        // TC03: different indices give different numbers
+        Util.setRandomSeed(7, 43);
+        assertNotEquals(expected[0], Util.random(0, 1), "Different indices gave the same number");
+    }
+}
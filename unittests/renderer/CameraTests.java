@@ -4,7 +4,11 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
 import primitives.*;
+import scene.Scene;
 
 /**
  * Testing Camera Class
@@ -55,4 +59,84 @@ class CameraTests {
 				camera.setVPSize(8, 8).constructRay(4, 4, 1, 0), badRay);
 
 	}
+
+	/**
+	 * An image writer which keeps the colors of the pixels
+	 */
+	private static class RecordingImageWriter extends ImageWriter {
+		final int[] pixels;
+
+		RecordingImageWriter(int nX, int nY) {
+			super("recording", nX, nY);
+			pixels = new int[nX * nY];
+		}
+
+		@Override
+		public void writePixel(int xIndex, int yIndex, Color color) {
+			pixels[yIndex * getNx() + xIndex] = color.getColor().getRGB();
+		}
+	}
+
+	/**
+	 * Renders a small scene with soft shadows.
+	 *
+	 * @param packetSize the packet size of the ray tracer
+	 * @param threads    the amount of render threads, 0 for rendering without threads
+	 * @param antiAliasing whether anti aliasing is used
+	 * @return the colors of the pixels
+	 */
+	private static int[] renderSoftShadows(int packetSize, int threads, boolean antiAliasing) {
+		Scene scene = new Scene("Test scene");
+		scene.geometries.add(
+				new Sphere(1, new Point(0, 0, -5)).setEmission(new Color(40, 20, 20))
+						.setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)),
+				new Plane(new Point(0, -1, 0), new Vector(0, 1, 0))
+						.setMaterial(new Material().setKd(0.6)));
+		scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(1, 4, -3)).setLengthOfTheSide(2));
+		RecordingImageWriter imageWriter = new RecordingImageWriter(30, 30);
+		new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0)).setVPDistance(5).setVPSize(6, 6)
+				.setRayTracer(new RayTracerBasic(scene).setUseSoftShadow(true).setPacketSize(packetSize))
+				.setImageWriter(imageWriter).setSeed(7).setTileSize(7)
+				.setUseThreadedRendering(threads > 0).setThreadsCount(threads)
+				.setUseAntiAliasing(antiAliasing).setAliasingRays(2)
+				.renderImage();
+		return imageWriter.pixels;
+	}
+
+	/**
+	 * Test method for {@link Camera#renderImage()}.
+	 */
+	@Test
+	void testRenderImage() {
+		int[] expected = renderSoftShadows(1, 0, false);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: Packets of primary rays in threads give the same image as the rays one by one - every
+		// ray draws the random numbers of its own pixel
+		for (int run = 0; run < 3; run++)
+			assertArrayEquals(expected, renderSoftShadows(12, 4, false), "The image depends on the packets");
+
+		// TC02: The anti aliasing rays of each pixel in packets
+		assertArrayEquals(renderSoftShadows(1, 0, true), renderSoftShadows(12, 4, true),
+				"The anti aliased image depends on the packets");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: Packets of a single ray in threads
+		assertArrayEquals(expected, renderSoftShadows(1, 4, false), "The image depends on the threads");
+
+		// TC12: A failing render stops its progress reporter
+		Camera failing = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0)).setVPDistance(5)
+				.setVPSize(6, 6).setImageWriter(new RecordingImageWriter(30, 30))
+				.setUseThreadedRendering(true).setThreadsCount(2)
+				.setRayTracer(new RayTracerBasic(new Scene("Test scene")) {
+					@Override
+					public Color traceRay(Ray ray) {
+						throw new IllegalStateException("Failed tracing");
+					}
+				});
+		assertThrows(IllegalStateException.class, failing::renderImage, "The failure wasn't thrown");
+		assertTrue(Thread.getAllStackTraces().keySet().stream()
+						.noneMatch(thread -> thread.getName().equals("PixelManager progress reporter")),
+				"The progress reporter of the failed render is still running");
+	}
 }
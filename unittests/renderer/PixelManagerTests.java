@@ -0,0 +1,108 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Testing PixelManager Class
+ */
+class PixelManagerTests {
+
+	/**
+	 * Counts how many times every pixel of the image is covered by the tiles of a pixel manager
+	 *
+	 * @param nX       the amount of pixel columns
+	 * @param nY       the amount of pixel rows
+	 * @param tileSize the size of a tile
+	 * @return the coverage counters of the pixels
+	 */
+	private int[][] coverage(int nX, int nY, int tileSize) {
+		PixelManager pixelManager = new PixelManager(nY, nX, 0, tileSize);
+		int[][] covered = new int[nY][nX];
+		PixelManager.Tile tile;
+		while ((tile = pixelManager.nextTile()) != null) {
+			assertTrue(tile.width() > 0 && tile.width() <= tileSize, "Bad tile width");
+			assertTrue(tile.height() > 0 && tile.height() <= tileSize, "Bad tile height");
+			for (int i = tile.row(); i < tile.row() + tile.height(); i++)
+				for (int j = tile.col(); j < tile.col() + tile.width(); j++)
+					covered[i][j]++;
+		}
+		return covered;
+	}
+
+	/**
+	 * Test method for {@link PixelManager#nextTile()}.
+	 */
+	@Test
+	void testNextTile() {
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: image size is a multiple of the tile size
+		for (int[] row : coverage(64, 32, 16))
+			for (int count : row)
+				assertEquals(1, count, "Pixel is not rendered exactly once");
+
+		// TC02: image size is not a multiple of the tile size - the last tiles are clipped
+		for (int[] row : coverage(50, 37, 16))
+			for (int count : row)
+				assertEquals(1, count, "Pixel is not rendered exactly once");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: tile bigger than the image
+		for (int[] row : coverage(10, 7, 16))
+			for (int count : row)
+				assertEquals(1, count, "Pixel is not rendered exactly once");
+
+		// TC12: tile of a single pixel
+		for (int[] row : coverage(5, 3, 1))
+			for (int count : row)
+				assertEquals(1, count, "Pixel is not rendered exactly once");
+	}
+
+	/**
+	 * Test method for {@link PixelManager#nextTile()} called by several threads.
+	 */
+	@Test
+	void testNextTileConcurrent() throws InterruptedException {
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: every tile is allocated to exactly one of the threads
+		PixelManager pixelManager = new PixelManager(100, 100, 0, 4);
+		AtomicIntegerArray covered = new AtomicIntegerArray(100 * 100);
+		Runnable worker = () -> {
+			PixelManager.Tile tile;
+			while ((tile = pixelManager.nextTile()) != null)
+				for (int i = tile.row(); i < tile.row() + tile.height(); i++)
+					for (int j = tile.col(); j < tile.col() + tile.width(); j++) {
+						covered.incrementAndGet(i * 100 + j);
+						pixelManager.pixelDone();
+					}
+		};
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++)
+			(threads[t] = new Thread(worker)).start();
+		for (Thread thread : threads)
+			thread.join();
+		pixelManager.done();
+		for (int k = 0; k < covered.length(); k++)
+			assertEquals(1, covered.get(k), "Pixel is not rendered exactly once");
+	}
+
+	/**
+	 * Test method for {@link PixelManager#nextPixel()}.
+	 */
+	@Test
+	void testNextPixel() {
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: the pixels are allocated row by row, each one once
+		PixelManager pixelManager = new PixelManager(3, 5, 0);
+		for (int i = 0; i < 3; i++)
+			for (int j = 0; j < 5; j++)
+				assertEquals(new PixelManager.Pixel(j, i), pixelManager.nextPixel(), "Bad pixel allocated");
+
+		// =============== Boundary Values Tests ==================
+		// TC11: no more pixels after the last one
+		assertNull(pixelManager.nextPixel(), "Pixel allocated after the last one");
+	}
+}
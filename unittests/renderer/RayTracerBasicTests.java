@@ -0,0 +1,130 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing RayTracerBasic Class
+ */
+class RayTracerBasicTests {
+    /**
+     * A sphere which counts the calculations of its normal
+     */
+    private static class CountingSphere extends Sphere {
+        int normals = 0;
+
+        CountingSphere(double radius, Point center) {
+            super(radius, center);
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            normals++;
+            return super.getNormal(point);
+        }
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#traceRay(Ray)}.
+     */
+    @Test
+    void testTraceRayNormals() {
+        Scene scene = new Scene("Test scene");
+        CountingSphere mirror = new CountingSphere(1, new Point(0, 0, -5));
+        mirror.setMaterial(new Material().setKd(0.5).setKr(0.5));
+        CountingSphere matte = new CountingSphere(1, new Point(0, 0, 5));
+        matte.setMaterial(new Material().setKd(0.5));
+        scene.geometries.add(mirror, matte);
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 5, 0)));
+        RayTracerBasic rayTracer = new RayTracerBasic(scene);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A ray reflected from the mirror sphere to the matte one - one normal for each hit
+        rayTracer.traceRay(new Ray(new Point(0, 0, 0), new Vector(0, 0, -1)));
+        assertEquals(1, mirror.normals, "The normal of the first hit is calculated more than once");
+        assertEquals(1, matte.normals, "The normal of the reflected hit is calculated more than once");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray which misses the spheres - no normal is calculated
+        rayTracer.traceRay(new Ray(new Point(0, 0, 0), new Vector(1, 0, 0)));
+        assertEquals(1, mirror.normals, "A normal is calculated without a hit");
+        assertEquals(1, matte.normals, "A normal is calculated without a hit");
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#traceRays(Ray[], Color[], int)}.
+     */
+    @Test
+    void testTraceRays() {
+        Scene scene = new Scene("Test scene");
+        scene.geometries.add(
+                new Sphere(1, new Point(0, 0, -3)).setEmission(new Color(20, 40, 60))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(20).setKr(0.3)),
+                new Sphere(1, new Point(1.5, 0, -4)).setEmission(new Color(60, 40, 20))
+                        .setMaterial(new Material().setKd(0.5).setKt(0.4)));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(0, 3, 0)).setKq(0.1));
+        RayTracerBasic single = new RayTracerBasic(scene);
+        RayTracerBasic packets = new RayTracerBasic(scene).setPacketSize(16);
+        Ray[] rays = new Ray[15 * 15];
+        int count = 0;
+        for (int i = -7; i <= 7; i++)
+            for (int j = -7; j <= 7; j++)
+                rays[count++] = new Ray(Point.ZERO, new Vector(0.2 * j, 0.2 * i, -1));
+        Color[] colors = new Color[count];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The same colors as the rays traced one by one, for packets with hits and misses and a
+        // last packet which isn't full
+        packets.traceRays(rays, colors, count);
+        for (int i = 0; i < count; i++)
+            assertEquals(0, single.traceRay(rays[i]).difference(colors[i]), 1e-9,
+                    "Wrong color of a ray of a packet");
+
+        // TC02: The camera batches the primary rays by the packet size
+        assertEquals(16, packets.getBatchSize(), "Wrong batch size of the packets");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Without packets the camera traces the rays one by one
+        assertEquals(1, single.getBatchSize(), "Wrong batch size without packets");
+
+        // TC12: Wrong packet size
+        assertThrows(IllegalArgumentException.class, () -> single.setPacketSize(0), "Zero packet size accepted");
+        assertThrows(IllegalArgumentException.class, () -> single.setPacketSize(17), "Too large packet accepted");
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#getOccluderCacheHits()} and
+     * {@link RayTracerBasic#getOccluderCacheMisses()}.
+     */
+    @Test
+    void testOccluderCacheCounters() {
+        Scene scene = new Scene("Test scene");
+        scene.geometries.add(new Sphere(1, new Point(0, 0, 2)).setMaterial(new Material().setKd(0.5)),
+                new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(new Material().setKd(0.5)));
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 0, 5)));
+        RayTracerBasic rayTracer = new RayTracerBasic(scene).setUseOccluderCache(true);
+        Ray shadowed = new Ray(new Point(0.1, 0, 0.5), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The first shadow ray of a light has no cached occluder - a miss
+        rayTracer.traceRay(shadowed);
+        assertEquals(0, rayTracer.getOccluderCacheHits(), "A hit without a cached occluder");
+        assertEquals(1, rayTracer.getOccluderCacheMisses(), "A lookup without a cached occluder isn't a miss");
+
+        // TC02: The next shadow ray is blocked by the cached occluder - a hit
+        rayTracer.traceRay(shadowed);
+        assertEquals(1, rayTracer.getOccluderCacheHits(), "The cached occluder didn't hit");
+        assertEquals(1, rayTracer.getOccluderCacheMisses(), "Wrong amount of misses");
+
+        // TC03: A lit point isn't blocked by the cached occluder - a miss
+        rayTracer.traceRay(new Ray(new Point(5, 0, 0.5), new Vector(0, 0, -1)));
+        assertEquals(1, rayTracer.getOccluderCacheHits(), "Wrong amount of hits");
+        assertEquals(2, rayTracer.getOccluderCacheMisses(), "A stale occluder isn't a miss");
+    }
+}
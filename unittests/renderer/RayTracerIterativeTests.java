@@ -0,0 +1,64 @@
+package renderer;
+
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing RayTracerIterative Class
+ */
+class RayTracerIterativeTests {
+    /**
+     * A scene of a sphere inside two facing mirror spheres, so rays bounce up to the maximal level
+     */
+    private final Scene scene = new Scene("Test scene")
+            .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+
+    {
+        scene.geometries.add(
+                new Sphere(1, new Point(0, 0, 0)).setEmission(new Color(20, 40, 60))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(20).setKt(0.4)),
+                new Sphere(100, new Point(0, 0, -103)).setEmission(new Color(10, 10, 10))
+                        .setMaterial(new Material().setKd(0.2).setKr(0.7)),
+                new Sphere(100, new Point(0, 0, 103)).setEmission(new Color(10, 10, 10))
+                        .setMaterial(new Material().setKd(0.2).setKr(new Double3(0.6, 0.5, 0.4))));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(0, 2, 0)).setKq(0.1));
+    }
+
+    /**
+     * Test method for {@link RayTracerIterative#traceRay(Ray)}.
+     */
+    @Test
+    void testTraceRay() {
+        RayTracerBasic recursive = new RayTracerBasic(scene);
+        RayTracerIterative iterative = new RayTracerIterative(scene);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The same colors as the recursive tracer
+        for (int i = -10; i <= 10; i++)
+            for (int j = -10; j <= 10; j++) {
+                Ray ray = new Ray(new Point(0.1 * i, 0.1 * j, 2.5), new Vector(0.01 * j, 0.01 * i, -1));
+                assertEquals(0, recursive.traceRay(ray).difference(iterative.traceRay(ray)), 1e-9,
+                        "Wrong color of the iterative tracer");
+            }
+
+        // TC02: Capping the secondary rays loses the light of the deep bounces
+        Ray ray = new Ray(new Point(0, 0.5, 2.5), new Vector(0, 0, -1));
+        Color full = iterative.traceRay(ray);
+        Color capped = iterative.setMaxRays(1).traceRay(ray);
+        assertTrue(full.difference(capped) > 0, "The secondary rays are not capped");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A ray which misses the scene
+        assertEquals(0, scene.background.difference(iterative.traceRay(new Ray(new Point(0, 5, 0), new Vector(1, 0, 0)))),
+                "Wrong color of a missing ray");
+
+        // TC12: Negative maximal amount of rays
+        assertThrows(IllegalArgumentException.class, () -> iterative.setMaxRays(-1), "Negative amount accepted");
+    }
+}
@@ -0,0 +1,94 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing RayTracerWavefront Class
+ */
+class RayTracerWavefrontTests {
+    /**
+     * A scene of spheres and a triangle over a mirror floor, lit by three kinds of lights, so each
+     * hit sends several shadow rays and the shadows pass through transparent geometries
+     */
+    private final Scene scene = new Scene("Test scene")
+            .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.05));
+
+    {
+        scene.geometries.add(
+                new Plane(new Point(0, 0, -1), new Vector(0, 0, 1)).setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKd(0.4).setKs(0.2).setShininess(30).setKr(0.3)),
+                new Sphere(0.6, new Point(-0.7, 0, 0)).setEmission(new Color(60, 20, 20))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.4).setShininess(50).setKt(0.5)),
+                new Sphere(0.4, new Point(0.8, 0.3, -0.2)).setEmission(new Color(20, 60, 20))
+                        .setMaterial(new Material().setKd(0.3).setKs(0.3).setShininess(20).setKr(0.4)),
+                new Triangle(new Point(-1.5, 1, -1), new Point(1.5, 1, -1), new Point(0, 1.2, 1.5))
+                        .setEmission(new Color(20, 20, 60))
+                        .setMaterial(new Material().setKd(0.6).setKt(new Double3(0.2, 0.4, 0.6))));
+        scene.lights.add(new PointLight(new Color(400, 300, 300), new Point(-2, -2, 3)).setKl(0.05).setKq(0.01));
+        scene.lights.add(new SpotLight(new Color(300, 400, 300), new Point(2, -1, 2), new Vector(-2, 1, -3))
+                .setKl(0.02));
+        scene.lights.add(new DirectionalLight(new Color(150, 150, 200), new Vector(0.3, 1, -1)));
+    }
+
+    /**
+     * Test method for {@link RayTracerWavefront#traceRays(Ray[], Color[], int)}.
+     */
+    @Test
+    void testTraceRays() {
+        RayTracerBasic recursive = new RayTracerBasic(scene);
+        RayTracerWavefront wavefront = new RayTracerWavefront(scene);
+        Point eye = new Point(0, -5, 1);
+        Ray[] rays = new Ray[30 * 30 + 1];
+        int count = 0;
+        for (int i = 0; i < 30; i++)
+            for (int j = 0; j < 30; j++)
+                rays[count++] = new Ray(eye, new Point(-1.5 + 0.1 * j, 0, 0.8 - 0.1 * i).subtract(eye));
+        // a ray which misses the scene
+        rays[count++] = new Ray(eye, new Vector(0, 0, 1));
+        Color[] colors = new Color[count];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The same colors as the recursive tracer, for a batch with hits and misses - every wave
+        // and every batch of shadow rays is much larger than the initial capacity of the buffers
+        wavefront.traceRays(rays, colors, count);
+        for (int i = 0; i < count; i++)
+            assertEquals(0, recursive.traceRay(rays[i]).difference(colors[i]), 1e-9,
+                    "Wrong color of the wavefront tracer");
+
+        // TC02: The same colors when the rays are traced in batches of 97 rays, which don't divide
+        // their amount, and intersected in packets which don't divide the waves
+        wavefront.setPacketSize(5);
+        Ray[] batch = new Ray[97];
+        Color[] batchColors = new Color[97];
+        for (int from = 0; from < count; from += batch.length) {
+            int size = Math.min(batch.length, count - from);
+            System.arraycopy(rays, from, batch, 0, size);
+            wavefront.traceRays(batch, batchColors, size);
+            for (int i = 0; i < size; i++)
+                assertEquals(0, recursive.traceRay(batch[i]).difference(batchColors[i]), 1e-9,
+                        "Wrong color of the wavefront tracer in small batches");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A batch of a single ray
+        assertEquals(0, recursive.traceRay(rays[0]).difference(wavefront.traceRay(rays[0])), 1e-9,
+                "Wrong color of a single ray");
+
+        // TC12: An empty batch
+        assertDoesNotThrow(() -> wavefront.traceRays(rays, colors, 0), "Empty batch failed");
+
+        // TC13: Wrong batch size
+        assertThrows(IllegalArgumentException.class, () -> wavefront.setBatchSize(0), "Zero batch size accepted");
+    }
+}
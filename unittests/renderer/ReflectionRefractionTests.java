@@ -65,6 +65,51 @@ public class ReflectionRefractionTests {
               .writeToImage();
    }
 
+   /** Produce a picture of a sphere lighted by a spot light using adaptive super sampling option */
+   @Test
+   public void twoSpheresAdaptiveAntiAliasing() {
+      Camera camera = new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+              .setUseAntiAliasing(true).setUseAdaptiveSuperSampling(true).setAdaptiveMaxDepth(3)
+              .setVPSize(150, 150).setVPDistance(1000);
+
+      scene.geometries.add( //
+              new Sphere(50d, new Point(0, 0, -50)).setEmission(new Color(BLUE)) //
+                      .setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(100).setKt(0.3)),
+              new Sphere(25d, new Point(0, 0, -50)).setEmission(new Color(RED)) //
+                      .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(100)));
+      scene.lights.add( //
+              new SpotLight(new Color(1000, 600, 0), new Point(-100, -100, 500), new Vector(-1, -1, -2)) //
+                      .setKl(0.0004).setKq(0.0000006));
+
+      camera.setImageWriter(new ImageWriter("refractionTwoSpheres - adaptive anti aliasing", 500, 500)) //
+              .setRayTracer(new RayTracerBasic(scene)) //
+              .renderImage() //
+              .writeToImage();
+   }
+
+   /** Produce a picture of a sphere lighted by a spot light using anti aliasing option with 16 rays
+    * distributed by a Halton sampler */
+   @Test
+   public void twoSpheresHaltonAntiAliasing() {
+      Camera camera = new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+              .setUseAntiAliasing(true).setAliasingRays(4).setSampler(new HaltonSampler())
+              .setVPSize(150, 150).setVPDistance(1000);
+
+      scene.geometries.add( //
+              new Sphere(50d, new Point(0, 0, -50)).setEmission(new Color(BLUE)) //
+                      .setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(100).setKt(0.3)),
+              new Sphere(25d, new Point(0, 0, -50)).setEmission(new Color(RED)) //
+                      .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(100)));
+      scene.lights.add( //
+              new SpotLight(new Color(1000, 600, 0), new Point(-100, -100, 500), new Vector(-1, -1, -2)) //
+                      .setKl(0.0004).setKq(0.0000006));
+
+      camera.setImageWriter(new ImageWriter("refractionTwoSpheres - halton anti aliasing", 500, 500)) //
+              .setRayTracer(new RayTracerBasic(scene)) //
+              .renderImage() //
+              .writeToImage();
+   }
+
    /** Produce a picture of a sphere lighted by a spot light */
    @Test
    public void twoSpheresOnMirrors() {
@@ -98,6 +143,72 @@ public class ReflectionRefractionTests {
          .writeToImage();
    }
 
+   /** Produce a picture of two spheres on mirrors, the secondary rays are traced iteratively */
+   @Test
+   public void twoSpheresOnMirrorsIterative() {
+      Camera camera = new Camera(new Point(0, 0, 10000), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+         .setVPSize(2500, 2500).setVPDistance(10000); //
+
+      scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+
+      scene.geometries.add( //
+                           new Sphere(400d, new Point(-950, -900, -1000)).setEmission(new Color(0, 50, 100)) //
+                              .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)
+                                 .setKt(new Double3(0.5, 0, 0))),
+                           new Sphere(200d, new Point(-950, -900, -1000)).setEmission(new Color(100, 50, 20)) //
+                              .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)),
+                           new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                                        new Point(670, 670, 3000)) //
+                              .setEmission(new Color(20, 20, 20)) //
+                              .setMaterial(new Material().setKr(1)),
+                           new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                                        new Point(-1500, -1500, -2000)) //
+                              .setEmission(new Color(20, 20, 20)) //
+                              .setMaterial(new Material().setKr(new Double3(0.5, 0, 0.4))));
+
+      scene.lights.add(new SpotLight(new Color(1020, 400, 400), new Point(-750, -750, -150), new Vector(-1, -1, -4)) //
+         .setKl(0.00001).setKq(0.000005));
+
+      ImageWriter imageWriter = new ImageWriter("reflectionTwoSpheresMirroredIterative", 500, 500);
+      camera.setImageWriter(imageWriter) //
+         .setRayTracer(new RayTracerIterative(scene)) //
+         .renderImage() //
+         .writeToImage();
+   }
+
+   /** Produce a picture of two spheres on mirrors, the rays are traced in waves */
+   @Test
+   public void twoSpheresOnMirrorsWavefront() {
+      Camera camera = new Camera(new Point(0, 0, 10000), new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+         .setVPSize(2500, 2500).setVPDistance(10000); //
+
+      scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+
+      scene.geometries.add( //
+                           new Sphere(400d, new Point(-950, -900, -1000)).setEmission(new Color(0, 50, 100)) //
+                              .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)
+                                 .setKt(new Double3(0.5, 0, 0))),
+                           new Sphere(200d, new Point(-950, -900, -1000)).setEmission(new Color(100, 50, 20)) //
+                              .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)),
+                           new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                                        new Point(670, 670, 3000)) //
+                              .setEmission(new Color(20, 20, 20)) //
+                              .setMaterial(new Material().setKr(1)),
+                           new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                                        new Point(-1500, -1500, -2000)) //
+                              .setEmission(new Color(20, 20, 20)) //
+                              .setMaterial(new Material().setKr(new Double3(0.5, 0, 0.4))));
+
+      scene.lights.add(new SpotLight(new Color(1020, 400, 400), new Point(-750, -750, -150), new Vector(-1, -1, -4)) //
+         .setKl(0.00001).setKq(0.000005));
+
+      ImageWriter imageWriter = new ImageWriter("reflectionTwoSpheresMirroredWavefront", 500, 500);
+      camera.setImageWriter(imageWriter) //
+         .setRayTracer(new RayTracerWavefront(scene)) //
+         .renderImage() //
+         .writeToImage();
+   }
+
    /** Produce a picture of a sphere lighted by a spot light using anti aliasing option */
    @Test
    public void twoSpheresOnMirrorsAntiAliasing() {
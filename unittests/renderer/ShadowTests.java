@@ -1,5 +1,7 @@
 package renderer;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import org.junit.jupiter.api.Test;
 
 import static java.awt.Color.*;
@@ -34,6 +36,48 @@ public class ShadowTests {
          .writeToImage();
    }
 
+   /** Produce a picture of a sphere and triangle with soft shadow, the shadow rays are
+    * distributed by a scrambled Sobol sampler */
+   @Test
+   public void sphereTriangleSoftShadowSobol() {
+      scene.geometries.add(sphere, new Triangle(new Point(-70, -40, 0), new Point(-40, -70, 0), new Point(-68, -68, -4)) //
+         .setEmission(new Color(BLUE)).setMaterial(trMaterial));
+      scene.lights.add( //
+                       new SpotLight(new Color(400, 240, 0), new Point(-100, -100, 200), new Vector(1, 1, -3)) //
+                          .setKl(1E-5).setKq(1.5E-7).setSampler(new SobolSampler()));
+      camera.setRayTracer(new RayTracerBasic(scene).setUseSoftShadow(true)) //
+         .setImageWriter(new ImageWriter("shadowSphereTriangleSoftSobol", 400, 400)) //
+         .renderImage() //
+         .writeToImage();
+   }
+
+   /** Produce a picture of a sphere and triangle with adaptive soft shadow - the whole beam of
+    * shadow rays is traced only in the penumbra */
+   @Test
+   public void sphereTriangleSoftShadowAdaptive() {
+      scene.geometries.add(sphere, new Triangle(new Point(-70, -40, 0), new Point(-40, -70, 0), new Point(-68, -68, -4)) //
+         .setEmission(new Color(BLUE)).setMaterial(trMaterial));
+      scene.lights.add( //
+                       new SpotLight(new Color(400, 240, 0), new Point(-100, -100, 200), new Vector(1, 1, -3)) //
+                          .setKl(1E-5).setKq(1.5E-7).setSampler(new SobolSampler()));
+      camera.setRayTracer(new RayTracerBasic(scene).setUseSoftShadow(true).setUseAdaptiveSoftShadow(true)) //
+         .setImageWriter(new ImageWriter("shadowSphereTriangleSoftAdaptive", 400, 400)) //
+         .renderImage() //
+         .writeToImage();
+   }
+
+   /** Produce a picture of a sphere and triangle with shade, the shadow rays test the last
+    * occluder first */
+   @Test
+   public void sphereTriangleOccluderCache() {
+      RayTracerBasic rayTracer = new RayTracerBasic(scene).setUseOccluderCache(true);
+      camera.setRayTracer(rayTracer);
+      sphereTriangleHelper("shadowSphereTriangleOccluderCache", //
+                           new Triangle(new Point(-70, -40, 0), new Point(-40, -70, 0), new Point(-68, -68, -4)), //
+                           new Point(-100, -100, 200));
+      assertTrue(rayTracer.getOccluderCacheHits() > 0, "Occluder cache is not used");
+   }
+
    /** Produce a picture of a sphere and triangle with point light and shade */
    @Test
    public void sphereTriangleInitial() {